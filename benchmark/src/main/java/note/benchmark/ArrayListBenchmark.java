@@ -0,0 +1,102 @@
+package note.benchmark;
+
+import note.ArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArrayList 与 java.util.ArrayList 的 add / get / remove(int) 对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ArrayListBenchmark extends KeyedState {
+
+    private ArrayList<Integer> list;
+    private java.util.ArrayList<Integer> jdkList;
+
+    @Override
+    protected void prepare() {
+        list = new ArrayList<>();
+        jdkList = new java.util.ArrayList<>();
+        for (Integer key : keys) {
+            list.add(key);
+            jdkList.add(key);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Integer> add() {
+        ArrayList<Integer> result = new ArrayList<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public java.util.ArrayList<Integer> jdkAdd() {
+        java.util.ArrayList<Integer> result = new java.util.ArrayList<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long get() {
+        long sum = 0;
+        for (int index : indexes) {
+            sum += list.get(index);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkGet() {
+        long sum = 0;
+        for (int index : indexes) {
+            sum += jdkList.get(index);
+        }
+        return sum;
+    }
+
+    /**
+     * 先逐个添加，再按 indexes 逐个删除直到为空
+     */
+    @Benchmark
+    public long addThenRemove() {
+        ArrayList<Integer> result = new ArrayList<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        long sum = 0;
+        for (int index : indexes) {
+            sum += result.remove(index);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkAddThenRemove() {
+        java.util.ArrayList<Integer> result = new java.util.ArrayList<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        long sum = 0;
+        for (int index : indexes) {
+            sum += result.remove(index);
+        }
+        return sum;
+    }
+
+}
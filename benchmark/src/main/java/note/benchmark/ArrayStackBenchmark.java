@@ -0,0 +1,51 @@
+package note.benchmark;
+
+import note.ArrayStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArrayStack 与 java.util.ArrayDeque 的入栈再全部出栈对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ArrayStackBenchmark extends KeyedState {
+
+    @Benchmark
+    public long pushThenPop() {
+        ArrayStack<Integer> stack = new ArrayStack<>();
+        for (Integer key : keys) {
+            stack.push(key);
+        }
+        long sum = 0;
+        while (!stack.empty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkPushThenPop() {
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        for (Integer key : keys) {
+            stack.push(key);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,157 @@
+package note.benchmark;
+
+import note.AVLTree;
+import note.BPlusTree;
+import note.BinarySearchTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BinarySearchTree、AVLTree、BPlusTree 与 java.util.TreeSet 的 add / contains / remove 对比
+ * SEQUENTIAL 模式下二分搜索树会退化成链表
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BinarySearchTreeBenchmark extends KeyedState {
+
+    private BinarySearchTree<Integer> tree;
+    private AVLTree<Integer> avlTree;
+    private BPlusTree<Integer> bPlusTree;
+    private TreeSet<Integer> jdkTree;
+
+    @Override
+    protected void prepare() {
+        tree = add();
+        avlTree = avlAdd();
+        bPlusTree = bPlusAdd();
+        jdkTree = jdkAdd();
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> add() {
+        BinarySearchTree<Integer> result = new BinarySearchTree<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public AVLTree<Integer> avlAdd() {
+        AVLTree<Integer> result = new AVLTree<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BPlusTree<Integer> bPlusAdd() {
+        BPlusTree<Integer> result = new BPlusTree<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TreeSet<Integer> jdkAdd() {
+        TreeSet<Integer> result = new TreeSet<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int contains() {
+        int hits = 0;
+        for (Integer key : keys) {
+            if (tree.contains(key)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int avlContains() {
+        int hits = 0;
+        for (Integer key : keys) {
+            if (avlTree.contains(key)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int bPlusContains() {
+        int hits = 0;
+        for (Integer key : keys) {
+            if (bPlusTree.contains(key)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int jdkContains() {
+        int hits = 0;
+        for (Integer key : keys) {
+            if (jdkTree.contains(key)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int addThenRemove() {
+        BinarySearchTree<Integer> result = add();
+        for (Integer key : keys) {
+            result.remove(key);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int avlAddThenRemove() {
+        AVLTree<Integer> result = avlAdd();
+        for (Integer key : keys) {
+            result.remove(key);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int bPlusAddThenRemove() {
+        BPlusTree<Integer> result = bPlusAdd();
+        for (Integer key : keys) {
+            result.remove(key);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int jdkAddThenRemove() {
+        TreeSet<Integer> result = jdkAdd();
+        for (Integer key : keys) {
+            result.remove(key);
+        }
+        return result.size();
+    }
+
+}
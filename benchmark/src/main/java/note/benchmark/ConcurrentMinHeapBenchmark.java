@@ -0,0 +1,96 @@
+package note.benchmark;
+
+import note.ConcurrentMinHeap;
+import note.MinHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程下 ConcurrentMinHeap（精确模式 / 宽松模式）、加全局锁的 MinHeap
+ * 与 java.util.concurrent.PriorityBlockingQueue 的对比
+ * 每次调用先 add 一个随机键，再 extractMin 一次，堆的大小保持在 size 左右
+ * 线程数通过 -t 指定，例如：for t in 1 2 4 8 16 32; do java -jar target/benchmarks.jar ConcurrentMinHeapBenchmark -t $t; done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConcurrentMinHeapBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+    private ConcurrentMinHeap<Integer> exact;
+    private ConcurrentMinHeap<Integer> relaxed;
+    private MinHeap<Integer> heap;
+    private PriorityBlockingQueue<Integer> jdkQueue;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = new Integer[size * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        exact = new ConcurrentMinHeap<>();
+        relaxed = new ConcurrentMinHeap<>(true);
+        heap = new MinHeap<>(size);
+        jdkQueue = new PriorityBlockingQueue<>(size);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            Integer key = keys[random.nextInt(keys.length)];
+            exact.add(key);
+            relaxed.add(key);
+            heap.add(key);
+            jdkQueue.offer(key);
+        }
+    }
+
+    private Integer randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    public Integer exact() {
+        exact.add(randomKey());
+        return exact.extractMin();
+    }
+
+    @Benchmark
+    public Integer relaxed() {
+        relaxed.add(randomKey());
+        return relaxed.extractMin();
+    }
+
+    @Benchmark
+    public Integer synchronizedMinHeap() {
+        Integer key = randomKey();
+        synchronized (heap) {
+            heap.add(key);
+            return heap.extractMin();
+        }
+    }
+
+    @Benchmark
+    public Integer jdkPriorityBlockingQueue() {
+        jdkQueue.offer(randomKey());
+        return jdkQueue.poll();
+    }
+
+}
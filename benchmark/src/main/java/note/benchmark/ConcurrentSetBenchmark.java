@@ -0,0 +1,109 @@
+package note.benchmark;
+
+import note.BinarySearchTree;
+import note.LockFreeSkipList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程下 LockFreeSkipList、加全局锁的 BinarySearchTree 与 java.util.concurrent.ConcurrentSkipListSet 的对比
+ * 每次调用随机选择一个键，按 writePercent 的比例执行 add / remove（各占一半），其余执行 contains
+ * 线程数通过 -t 指定，例如：for t in 1 2 4 8 16; do java -jar target/benchmarks.jar ConcurrentSetBenchmark -t $t; done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConcurrentSetBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"0", "10", "50"})
+    public int writePercent;
+
+    private Integer[] keys;
+    private LockFreeSkipList<Integer> skipList;
+    private BinarySearchTree<Integer> tree;
+    private ConcurrentSkipListSet<Integer> jdkSkipList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // 键的范围是初始元素个数的两倍，写操作稳定后集合大约保持半满
+        keys = new Integer[size * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        Integer[] evens = new Integer[size];
+        skipList = new LockFreeSkipList<>();
+        jdkSkipList = new ConcurrentSkipListSet<>();
+        for (int i = 0; i < size; i++) {
+            evens[i] = keys[i * 2];
+            skipList.add(evens[i]);
+            jdkSkipList.add(evens[i]);
+        }
+        tree = BinarySearchTree.fromSorted(evens);
+    }
+
+    @Benchmark
+    public boolean lockFreeSkipList() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(keys.length)];
+        int op = random.nextInt(200);
+        if (op < writePercent) {
+            return skipList.add(key);
+        }
+        if (op < writePercent * 2) {
+            return skipList.remove(key);
+        }
+        return skipList.contains(key);
+    }
+
+    @Benchmark
+    public boolean synchronizedTree() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(keys.length)];
+        int op = random.nextInt(200);
+        synchronized (tree) {
+            if (op < writePercent) {
+                tree.add(key);
+                return true;
+            }
+            if (op < writePercent * 2) {
+                return tree.remove(key) != null;
+            }
+            return tree.contains(key);
+        }
+    }
+
+    @Benchmark
+    public boolean jdkSkipList() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(keys.length)];
+        int op = random.nextInt(200);
+        if (op < writePercent) {
+            return jdkSkipList.add(key);
+        }
+        if (op < writePercent * 2) {
+            return jdkSkipList.remove(key);
+        }
+        return jdkSkipList.contains(key);
+    }
+
+}
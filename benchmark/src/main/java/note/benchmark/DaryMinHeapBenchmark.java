@@ -0,0 +1,81 @@
+package note.benchmark;
+
+import note.DaryMinHeap;
+import note.MinHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同叉数的 DaryMinHeap 与 MinHeap 在以 extractMin 为主的负载下的对比
+ * steady 系列模拟调度器：堆中保持 size 个元素，每次取出最小值后再放回一个更大的值
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DaryMinHeapBenchmark extends KeyedState {
+
+    @Param({"2", "4", "8"})
+    public int arity;
+
+    private DaryMinHeap<Integer> daryHeap;
+    private MinHeap<Integer> minHeap;
+
+    @Override
+    protected void prepare() {
+        daryHeap = new DaryMinHeap<>(arity, size);
+        minHeap = new MinHeap<>(size);
+        for (Integer key : keys) {
+            daryHeap.add(key);
+            minHeap.add(key);
+        }
+    }
+
+    @Benchmark
+    public long addThenExtractMin() {
+        DaryMinHeap<Integer> heap = new DaryMinHeap<>(arity);
+        for (Integer key : keys) {
+            heap.add(key);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.extractMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long steady() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            Integer min = daryHeap.extractMin();
+            sum += min;
+            daryHeap.add(min + size);
+        }
+        return sum;
+    }
+
+    /**
+     * 对照组，与arity无关
+     */
+    @Benchmark
+    public long minHeapSteady() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            Integer min = minHeap.extractMin();
+            sum += min;
+            minHeap.add(min + size);
+        }
+        return sum;
+    }
+
+}
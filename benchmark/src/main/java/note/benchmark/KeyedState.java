@@ -0,0 +1,84 @@
+package note.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * 所有基准测试共用的参数：数据规模和键的顺序
+ * keys 是要写入的元素，indexes 是按下标访问/删除时使用的位置
+ */
+@State(Scope.Benchmark)
+public abstract class KeyedState {
+
+    public enum KeyOrder {
+        /**
+         * 0, 1, 2 ... size - 1
+         */
+        SEQUENTIAL,
+        /**
+         * 0 ~ size - 1 的随机排列
+         */
+        RANDOM
+    }
+
+    /**
+     * 固定种子，保证每次fork生成的数据一致
+     */
+    private static final long SEED = 0x5EED_2019L;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    public KeyOrder order;
+
+    protected Integer[] keys;
+    /**
+     * 第i次按下标操作时使用的位置，保证在 [0, size - i) 范围内
+     */
+    protected int[] indexes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generateKeys();
+        prepare();
+    }
+
+    /**
+     * 子类在键生成之后预先构建好需要的数据结构
+     */
+    protected void prepare() {
+    }
+
+    private void generateKeys() {
+        Random random = new Random(SEED);
+        keys = new Integer[size];
+        indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+        }
+        if (order == KeyOrder.RANDOM) {
+            // Fisher-Yates 洗牌
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer temp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = temp;
+            }
+            for (int i = 0; i < size; i++) {
+                indexes[i] = random.nextInt(size - i);
+            }
+        } else {
+            // 顺序模式下总是操作尾部
+            for (int i = 0; i < size; i++) {
+                indexes[i] = size - 1 - i;
+            }
+        }
+    }
+
+}
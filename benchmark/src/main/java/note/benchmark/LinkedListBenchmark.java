@@ -0,0 +1,96 @@
+package note.benchmark;
+
+import note.LinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LinkedList 与 java.util.LinkedList 的尾部追加、头部/尾部删除对比
+ * doubly 前缀的方法使用双向链表模式
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LinkedListBenchmark extends KeyedState {
+
+    @Benchmark
+    public LinkedList<Integer> add() {
+        LinkedList<Integer> result = new LinkedList<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public java.util.LinkedList<Integer> jdkAdd() {
+        java.util.LinkedList<Integer> result = new java.util.LinkedList<>();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long addThenRemoveFirst() {
+        LinkedList<Integer> result = add();
+        long sum = 0;
+        while (!result.isEmpty()) {
+            sum += result.removeFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkAddThenRemoveFirst() {
+        java.util.LinkedList<Integer> result = jdkAdd();
+        long sum = 0;
+        while (!result.isEmpty()) {
+            sum += result.removeFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long addThenRemoveLast() {
+        LinkedList<Integer> result = add();
+        long sum = 0;
+        while (!result.isEmpty()) {
+            sum += result.remove();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long doublyAddThenRemoveLast() {
+        LinkedList<Integer> result = new LinkedList<>(true);
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        long sum = 0;
+        while (!result.isEmpty()) {
+            sum += result.removeLast();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkAddThenRemoveLast() {
+        java.util.LinkedList<Integer> result = jdkAdd();
+        long sum = 0;
+        while (!result.isEmpty()) {
+            sum += result.removeLast();
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,159 @@
+package note.benchmark;
+
+import note.IndexedMinHeap;
+import note.LongKeyedMinHeap;
+import note.LongMinHeap;
+import note.MinHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MinHeap 与 java.util.PriorityQueue 的 add / extractMin 对比
+ * long 特化的 LongMinHeap / LongKeyedMinHeap 与装箱的 PriorityQueue<Long> 的对比（配合 -prof gc 查看分配）
+ * 以及 IndexedMinHeap 按句柄修改优先级 与 PriorityQueue 删除后重新加入 的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MinHeapBenchmark extends KeyedState {
+
+    @Benchmark
+    public MinHeap<Integer> add() {
+        MinHeap<Integer> heap = new MinHeap<>();
+        for (Integer key : keys) {
+            heap.add(key);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> jdkAdd() {
+        PriorityQueue<Integer> heap = new PriorityQueue<>();
+        for (Integer key : keys) {
+            heap.offer(key);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public MinHeap<Integer> heapify() {
+        return new MinHeap<>(keys.clone());
+    }
+
+    @Benchmark
+    public MinHeap<Integer> addAll() {
+        MinHeap<Integer> heap = new MinHeap<>();
+        heap.addAll(Arrays.asList(keys));
+        return heap;
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> jdkHeapify() {
+        return new PriorityQueue<>(Arrays.asList(keys));
+    }
+
+    @Benchmark
+    public Integer[] heapSort() {
+        Integer[] result = keys.clone();
+        MinHeap.heapSort(result);
+        return result;
+    }
+
+    @Benchmark
+    public long addThenExtractMin() {
+        MinHeap<Integer> heap = add();
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.extractMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkAddThenPoll() {
+        PriorityQueue<Integer> heap = jdkAdd();
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.poll();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longAddThenExtractMin() {
+        LongMinHeap heap = new LongMinHeap();
+        for (Integer key : keys) {
+            heap.add(key);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.extractMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longKeyedAddThenExtractMin() {
+        LongKeyedMinHeap<Integer> heap = new LongKeyedMinHeap<>();
+        for (Integer key : keys) {
+            heap.add(key, key);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.extractMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkBoxedLongAddThenPoll() {
+        PriorityQueue<Long> heap = new PriorityQueue<>();
+        for (Integer key : keys) {
+            heap.offer((long) key);
+        }
+        long sum = 0;
+        while (!heap.isEmpty()) {
+            sum += heap.poll();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long indexedDecreaseKey() {
+        IndexedMinHeap<Integer> heap = new IndexedMinHeap<>();
+        IndexedMinHeap.Handle<Integer>[] handles = new IndexedMinHeap.Handle[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            handles[i] = heap.add(keys[i]);
+        }
+        // 按indexes的顺序把每个元素的优先级调高（值减小）
+        for (int index : indexes) {
+            heap.decreaseKey(handles[index], handles[index].get() - keys.length);
+        }
+        return heap.min();
+    }
+
+    @Benchmark
+    public long jdkRemoveThenOffer() {
+        PriorityQueue<Integer> heap = jdkAdd();
+        Integer[] current = keys.clone();
+        for (int index : indexes) {
+            // PriorityQueue.remove(Object)需要线性查找
+            heap.remove(current[index]);
+            current[index] = current[index] - keys.length;
+            heap.offer(current[index]);
+        }
+        return heap.peek();
+    }
+
+}
@@ -0,0 +1,85 @@
+package note.benchmark;
+
+import note.MpmcBlockingQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个生产者线程和多个消费者线程之间传递元素：
+ * MpmcBlockingQueue 与 java.util.concurrent.ArrayBlockingQueue、LinkedBlockingQueue 的对比
+ * 队满/队空时自旋重试 offer/poll，只比较队列本身，不包含等待策略的开销
+ * 每组默认 2 个生产者、2 个消费者，可以通过 -tg 调整，例如 -tg 4,4
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MpmcBenchmark {
+
+    private static final Integer ELEMENT = 1;
+
+    public enum QueueType {
+        MPMC, JDK_ARRAY, JDK_LINKED
+    }
+
+    @Param({"1024"})
+    public int capacity;
+
+    @Param({"MPMC", "JDK_ARRAY", "JDK_LINKED"})
+    public QueueType type;
+
+    private BlockingQueue<Integer> queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        switch (type) {
+            case MPMC:
+                queue = new MpmcBlockingQueue<>(capacity);
+                break;
+            case JDK_ARRAY:
+                queue = new ArrayBlockingQueue<>(capacity);
+                break;
+            default:
+                queue = new LinkedBlockingQueue<>(capacity);
+        }
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(2)
+    public void offer(Control control) {
+        while (!queue.offer(ELEMENT) && !control.stopMeasurement) {
+        }
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(2)
+    public Integer poll(Control control) {
+        Integer e;
+        while ((e = queue.poll()) == null && !control.stopMeasurement) {
+        }
+        return e;
+    }
+
+}
@@ -0,0 +1,126 @@
+package note.benchmark;
+
+import note.ArrayCycleDeque;
+import note.ArrayCycleQueue;
+import note.ArrayQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArrayCycleQueue、ArrayCycleDeque、ArrayQueue 与 java.util.ArrayDeque 的入队再全部出队对比
+ * batch 系列模拟批量摄入：每次 offerAll 一批，再用 drainTo 每次最多取出一批
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QueueBenchmark extends KeyedState {
+
+    private static final int BATCH_SIZE = 256;
+
+    private List<Integer>[] batches;
+
+    @Override
+    protected void prepare() {
+        int count = (keys.length + BATCH_SIZE - 1) / BATCH_SIZE;
+        batches = new List[count];
+        for (int i = 0; i < count; i++) {
+            int from = i * BATCH_SIZE;
+            batches[i] = Arrays.asList(keys).subList(from, Math.min(from + BATCH_SIZE, keys.length));
+        }
+    }
+
+    @Benchmark
+    public long cycleQueue() {
+        ArrayCycleQueue<Integer> queue = new ArrayCycleQueue<>();
+        for (Integer key : keys) {
+            queue.add(key);
+        }
+        long sum = 0;
+        while (!queue.empty()) {
+            sum += queue.remove();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cycleDeque() {
+        ArrayCycleDeque<Integer> queue = new ArrayCycleDeque<>();
+        for (Integer key : keys) {
+            queue.addLast(key);
+        }
+        long sum = 0;
+        while (!queue.empty()) {
+            sum += queue.pollFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayQueue() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>();
+        for (Integer key : keys) {
+            queue.offer(key);
+        }
+        long sum = 0;
+        while (!queue.empty()) {
+            sum += queue.poll();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayQueueBatch() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>();
+        long[] sum = {0};
+        for (List<Integer> batch : batches) {
+            queue.offerAll(batch);
+            queue.drainTo(key -> sum[0] += key, BATCH_SIZE / 2);
+        }
+        while (!queue.empty()) {
+            queue.drainTo(key -> sum[0] += key, BATCH_SIZE);
+        }
+        return sum[0];
+    }
+
+    @Benchmark
+    public long jdkArrayDequeBatch() {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        long sum = 0;
+        for (List<Integer> batch : batches) {
+            queue.addAll(batch);
+            for (int i = 0; i < BATCH_SIZE / 2 && !queue.isEmpty(); i++) {
+                sum += queue.poll();
+            }
+        }
+        while (!queue.isEmpty()) {
+            sum += queue.poll();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long jdkArrayDeque() {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (Integer key : keys) {
+            queue.offer(key);
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.poll();
+        }
+        return sum;
+    }
+
+}
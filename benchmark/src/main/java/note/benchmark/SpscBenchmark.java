@@ -0,0 +1,119 @@
+package note.benchmark;
+
+import note.ArrayCycleQueue;
+import note.SpscRingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个生产者线程、一个消费者线程之间传递元素：
+ * SpscRingBuffer、加 synchronized 的 ArrayCycleQueue 与 java.util.concurrent.ArrayBlockingQueue 的对比
+ * 队满/队空时自旋重试，测量结束后通过 Control 退出，避免另一端已经停止时一直等待
+ * 每一组（@Group）的两个方法分别由生产者和消费者线程执行，结果是每组的吞吐量（次/微秒）
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpscBenchmark {
+
+    private static final Integer ELEMENT = 1;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private SpscRingBuffer<Integer> ringBuffer;
+    private ArrayCycleQueue<Integer> cycleQueue;
+    private ArrayBlockingQueue<Integer> jdkQueue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        ringBuffer = new SpscRingBuffer<>(capacity);
+        cycleQueue = new ArrayCycleQueue<>(capacity);
+        jdkQueue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(1)
+    public void ringBufferAdd(Control control) {
+        while (!ringBuffer.add(ELEMENT) && !control.stopMeasurement) {
+        }
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(1)
+    public Integer ringBufferRemove(Control control) {
+        Integer e;
+        while ((e = ringBuffer.remove()) == null && !control.stopMeasurement) {
+        }
+        return e;
+    }
+
+    @Benchmark
+    @Group("synchronizedCycleQueue")
+    @GroupThreads(1)
+    public void cycleQueueAdd(Control control) {
+        while (!control.stopMeasurement) {
+            synchronized (cycleQueue) {
+                // 保持有界，和另外两种实现一致
+                if (cycleQueue.size() < capacity) {
+                    cycleQueue.add(ELEMENT);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedCycleQueue")
+    @GroupThreads(1)
+    public Integer cycleQueueRemove(Control control) {
+        while (!control.stopMeasurement) {
+            synchronized (cycleQueue) {
+                if (!cycleQueue.empty()) {
+                    return cycleQueue.remove();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @Group("jdkArrayBlockingQueue")
+    @GroupThreads(1)
+    public void jdkOffer(Control control) {
+        while (!jdkQueue.offer(ELEMENT) && !control.stopMeasurement) {
+        }
+    }
+
+    @Benchmark
+    @Group("jdkArrayBlockingQueue")
+    @GroupThreads(1)
+    public Integer jdkPoll(Control control) {
+        Integer e;
+        while ((e = jdkQueue.poll()) == null && !control.stopMeasurement) {
+        }
+        return e;
+    }
+
+}
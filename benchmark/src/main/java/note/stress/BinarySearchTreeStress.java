@@ -0,0 +1,113 @@
+package note.stress;
+
+import note.BinarySearchTree;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * BinarySearchTree 随机压力测试
+ * 以 java.util.TreeSet 为参照，随机执行增删查操作，逐个比对返回值和 size()，
+ * 并定期全量检查中序有序性、元素个数以及 rank / select（依赖子树大小）是否正确
+ *
+ * 用法：java -cp target/benchmarks.jar note.stress.BinarySearchTreeStress [操作次数] [随机种子] [键的范围]
+ */
+public class BinarySearchTreeStress {
+
+    private static final int DEFAULT_OPERATIONS = 5_000_000;
+    private static final int DEFAULT_KEY_RANGE = 10_000;
+    /**
+     * 每隔多少次操作做一次全量检查
+     */
+    private static final int FULL_CHECK_INTERVAL = 100_000;
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int keyRange = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_KEY_RANGE;
+        System.out.println("operations: " + operations + ", seed: " + seed + ", keyRange: " + keyRange);
+
+        Random random = new Random(seed);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 1; i <= operations; i++) {
+            Integer key = random.nextInt(keyRange);
+            int op = random.nextInt(10);
+            switch (op) {
+                case 0:
+                case 1:
+                case 2:
+                    tree.add(key);
+                    expected.add(key);
+                    break;
+                case 3:
+                case 4:
+                    check(i, "remove", tree.remove(key), expected.remove(key) ? key : null);
+                    break;
+                case 5:
+                    check(i, "removeMin", tree.removeMin(), expected.pollFirst());
+                    break;
+                case 6:
+                    check(i, "removeMax", tree.removeMax(), expected.pollLast());
+                    break;
+                case 7:
+                    check(i, "contains", tree.contains(key), expected.contains(key));
+                    break;
+                case 8:
+                    check(i, "floor", tree.floor(key), expected.floor(key));
+                    check(i, "ceiling", tree.ceiling(key), expected.ceiling(key));
+                    break;
+                default:
+                    check(i, "rank", tree.rank(key), expected.headSet(key).size());
+                    break;
+            }
+            check(i, "size", tree.size(), expected.size());
+            if (i % FULL_CHECK_INTERVAL == 0) {
+                fullCheck(i, tree, expected);
+            }
+        }
+        fullCheck(operations, tree, expected);
+        System.out.println("passed, final size: " + tree.size() + ", height: " + tree.height());
+    }
+
+    /**
+     * 中序遍历严格递增且和参照一致，每个位置的 select / rank 互为逆运算
+     */
+    private static void fullCheck(int step, BinarySearchTree<Integer> tree, TreeSet<Integer> expected) {
+        Iterator<Integer> actual = tree.iterator();
+        int index = 0;
+        Integer prev = null;
+        for (Integer val : expected) {
+            if (!actual.hasNext()) {
+                fail(step, "inorder", "ended at index " + index + ", expected " + val);
+            }
+            Integer curr = actual.next();
+            check(step, "inorder[" + index + "]", curr, val);
+            if (prev != null && prev.compareTo(curr) >= 0) {
+                fail(step, "ordering", prev + " is not less than " + curr);
+            }
+            check(step, "select(" + index + ")", tree.select(index), val);
+            check(step, "rank(" + val + ")", tree.rank(val), index);
+            prev = curr;
+            index++;
+        }
+        if (actual.hasNext()) {
+            fail(step, "inorder", "has extra element " + actual.next());
+        }
+        check(step, "min", tree.min(), expected.isEmpty() ? null : expected.first());
+        check(step, "max", tree.max(), expected.isEmpty() ? null : expected.last());
+    }
+
+    private static void check(int step, String what, Object actual, Object expected) {
+        if (!Objects.equals(actual, expected)) {
+            fail(step, what, "expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static void fail(int step, String what, String message) {
+        throw new AssertionError("step " + step + ", " + what + ": " + message);
+    }
+
+}
@@ -0,0 +1,171 @@
+package note.stress;
+
+import note.LockFreeSkipList;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LockFreeSkipList 多线程压力测试，分两个阶段：
+ *
+ * 1. 按键分区：键 k 只由第 k % threads 个线程 add / remove，所以每个键上的写操作是串行的，
+ *    写线程同时对 java.util.concurrent.ConcurrentSkipListSet 执行相同的操作，逐个比对返回值；
+ *    相邻的键属于不同线程，跳表的同一段仍然被并发修改，其他线程还会随机 contains 任意键
+ * 2. 不分区：所有线程随机 add / remove / removeMin 同一批键，按键统计成功的 add 和 remove 次数，
+ *    结束后每个键 成功add次数 - 成功remove次数 必须是0或1，并且和 contains 的结果一致
+ *
+ * 每个阶段结束后全量比对 contains / size / min
+ *
+ * 用法：java -cp target/benchmarks.jar note.stress.LockFreeSkipListStress [每个线程的操作次数] [随机种子] [键的范围] [线程数]
+ */
+public class LockFreeSkipListStress {
+
+    private static final int DEFAULT_OPERATIONS = 1_000_000;
+    private static final int DEFAULT_KEY_RANGE = 10_000;
+    private static final int DEFAULT_THREADS = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int keyRange = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_KEY_RANGE;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_THREADS;
+        System.out.println("operations: " + operations + ", seed: " + seed + ", keyRange: " + keyRange
+                + ", threads: " + threads);
+
+        LockFreeSkipList<Integer> list = new LockFreeSkipList<>();
+        ConcurrentSkipListSet<Integer> expected = new ConcurrentSkipListSet<>();
+        run(threads, seed, thread -> partitioned(thread, threads, operations, keyRange, seed, list, expected));
+        fullCheck("partitioned", list, expected, keyRange);
+        System.out.println("partitioned passed, size: " + list.size());
+
+        AtomicInteger[] added = new AtomicInteger[keyRange];
+        AtomicInteger[] removed = new AtomicInteger[keyRange];
+        for (int i = 0; i < keyRange; i++) {
+            // 第一阶段留下的元素视为已经add过一次
+            added[i] = new AtomicInteger(expected.contains(i) ? 1 : 0);
+            removed[i] = new AtomicInteger();
+        }
+        run(threads, seed, thread -> shared(thread, operations, keyRange, seed, list, added, removed));
+        expected.clear();
+        for (int i = 0; i < keyRange; i++) {
+            int net = added[i].get() - removed[i].get();
+            if (net != 0 && net != 1) {
+                fail("shared", "key " + i + " added " + added[i] + " times but removed " + removed[i] + " times");
+            }
+            if (net == 1) {
+                expected.add(i);
+            }
+        }
+        fullCheck("shared", list, expected, keyRange);
+        System.out.println("shared passed, size: " + list.size());
+    }
+
+    private interface Task {
+        void run(int thread);
+    }
+
+    /**
+     * 启动threads个线程同时执行task，任一线程失败则抛出它的错误
+     */
+    private static void run(int threads, long seed, Task task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(thread);
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (error.get() != null) {
+            throw new AssertionError("seed " + seed, error.get());
+        }
+    }
+
+    private static void partitioned(int thread, int threads, int operations, int keyRange, long seed,
+                                    LockFreeSkipList<Integer> list, ConcurrentSkipListSet<Integer> expected) {
+        Random random = new Random(seed + thread);
+        int ownKeys = (keyRange - thread + threads - 1) / threads;
+        if (ownKeys <= 0) {
+            return;
+        }
+        for (int i = 1; i <= operations; i++) {
+            // 属于当前线程的键
+            Integer key = random.nextInt(ownKeys) * threads + thread;
+            switch (random.nextInt(4)) {
+                case 0:
+                    check(i, "add(" + key + ")", list.add(key), expected.add(key));
+                    break;
+                case 1:
+                    check(i, "remove(" + key + ")", list.remove(key), expected.remove(key));
+                    break;
+                case 2:
+                    check(i, "contains(" + key + ")", list.contains(key), expected.contains(key));
+                    break;
+                default:
+                    // 其他线程的键，结果不确定，只用来制造读写并发
+                    list.contains(random.nextInt(keyRange));
+                    break;
+            }
+        }
+    }
+
+    private static void shared(int thread, int operations, int keyRange, long seed, LockFreeSkipList<Integer> list,
+                               AtomicInteger[] added, AtomicInteger[] removed) {
+        Random random = new Random(~seed + thread);
+        for (int i = 1; i <= operations; i++) {
+            Integer key = random.nextInt(keyRange);
+            int op = random.nextInt(10);
+            if (op < 4) {
+                if (list.add(key)) {
+                    added[key].incrementAndGet();
+                }
+            } else if (op < 8) {
+                if (list.remove(key)) {
+                    removed[key].incrementAndGet();
+                }
+            } else if (op < 9) {
+                Integer min = list.removeMin();
+                if (min != null) {
+                    removed[min].incrementAndGet();
+                }
+            } else {
+                list.contains(key);
+            }
+        }
+    }
+
+    private static void fullCheck(String phase, LockFreeSkipList<Integer> list, ConcurrentSkipListSet<Integer> expected,
+                                  int keyRange) {
+        for (int i = 0; i < keyRange; i++) {
+            check(phase, "contains(" + i + ")", list.contains(i), expected.contains(i));
+        }
+        check(phase, "size", list.size(), expected.size());
+        check(phase, "min", list.min(), expected.isEmpty() ? null : expected.first());
+    }
+
+    private static void check(Object step, String what, Object actual, Object expected) {
+        if (!Objects.equals(actual, expected)) {
+            fail(step, what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static void fail(Object step, String message) {
+        throw new AssertionError("step " + step + ", " + message);
+    }
+
+}
@@ -0,0 +1,203 @@
+package note.stress;
+
+import note.MpmcBlockingQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MpmcBlockingQueue 多线程压力测试，分两个阶段：
+ *
+ * 1. 队列：生产者put互不相同的整数，消费者take，删除者随机remove(Object)，
+ *    结束后每个整数必须恰好被取走或者被删除一次
+ * 2. 线程池：以MpmcBlockingQueue为任务队列的ThreadPoolExecutor，一边提交任务一边cancel + purge()、remove(Runnable)，
+ *    提交途中shutdown；execute()在shutdown竞争时会调用remove(Runnable)。
+ *    结束后线程池必须终止，队列为空，每个任务最多执行一次，提交成功且没有被删除/取消的任务必须执行
+ *
+ * 用法：java -cp target/benchmarks.jar note.stress.MpmcBlockingQueueStress [每个生产者的元素个数] [随机种子] [线程数]
+ */
+public class MpmcBlockingQueueStress {
+
+    private static final int DEFAULT_OPERATIONS = 200_000;
+    private static final int DEFAULT_THREADS = 4;
+    private static final int CAPACITY = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_THREADS;
+        System.out.println("operations: " + operations + ", seed: " + seed + ", threads: " + threads);
+
+        for (MpmcBlockingQueue.WaitStrategy waitStrategy : new MpmcBlockingQueue.WaitStrategy[]{
+                MpmcBlockingQueue.WaitStrategy.PARK, MpmcBlockingQueue.WaitStrategy.blocking()}) {
+            queue(operations, seed, threads, waitStrategy);
+        }
+        System.out.println("queue passed");
+        executor(operations, seed, threads);
+        System.out.println("executor passed");
+    }
+
+    private static void queue(int operations, long seed, int threads, MpmcBlockingQueue.WaitStrategy waitStrategy)
+            throws InterruptedException {
+        MpmcBlockingQueue<Integer> queue = new MpmcBlockingQueue<>(CAPACITY, waitStrategy);
+        int total = operations * threads;
+        // 0：未出现，1：取走，2：删除
+        AtomicIntegerArray state = new AtomicIntegerArray(total);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int producer = t;
+            workers.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < operations; i++) {
+                        queue.put(i * threads + producer);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+        // 删除者和消费者一起计数，所有元素都处理完后结束
+        CountDownLatch done = new CountDownLatch(total);
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                try {
+                    Integer e;
+                    while (done.getCount() > 0) {
+                        if ((e = queue.poll(1, TimeUnit.MILLISECONDS)) != null) {
+                            mark(state, e, 1);
+                            done.countDown();
+                        }
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                }
+            }));
+        }
+        for (int t = 0; t < threads; t++) {
+            final Random random = new Random(seed + t);
+            workers.add(new Thread(() -> {
+                try {
+                    while (done.getCount() > 0) {
+                        // 删除快照中的元素，或者一个随机的整数
+                        Integer e = random.nextBoolean() ? queue.peek() : (Integer) random.nextInt(total);
+                        if (e != null && queue.remove(e)) {
+                            mark(state, e, 2);
+                            done.countDown();
+                        }
+                        Thread.yield();
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        join(workers, error, seed);
+        check("queue", "isEmpty", queue.isEmpty(), true);
+        check("queue", "poll", queue.poll(), null);
+        for (int i = 0; i < total; i++) {
+            if (state.get(i) == 0) {
+                fail("queue", "element " + i + " was lost");
+            }
+        }
+    }
+
+    private static void mark(AtomicIntegerArray state, int e, int how) {
+        if (!state.compareAndSet(e, 0, how)) {
+            fail("queue", "element " + e + " taken twice, state " + state.get(e) + " then " + how);
+        }
+    }
+
+    private static void executor(int operations, long seed, int threads) throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                new MpmcBlockingQueue<>(CAPACITY * 16, MpmcBlockingQueue.WaitStrategy.blocking()));
+        AtomicIntegerArray runs = new AtomicIntegerArray(operations);
+        // 0：提交中，1：提交成功，2：被拒绝，3：被取消，4：被remove删除
+        AtomicIntegerArray state = new AtomicIntegerArray(operations);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        // 一半的任务提交之后shutdown
+        CountDownLatch half = new CountDownLatch(operations / 2);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int submitter = t;
+            final Random random = new Random(seed + submitter);
+            workers.add(new Thread(() -> {
+                try {
+                    for (int i = submitter; i < operations; i += threads) {
+                        final int task = i;
+                        FutureTask<Void> future = new FutureTask<>(() -> runs.incrementAndGet(task), null);
+                        half.countDown();
+                        try {
+                            executor.execute(future);
+                            state.set(task, 1);
+                        } catch (RejectedExecutionException e) {
+                            state.set(task, 2);
+                            continue;
+                        }
+                        int op = random.nextInt(8);
+                        if (op == 0 && future.cancel(false)) {
+                            state.set(task, 3);
+                            executor.purge();
+                        } else if (op == 1 && executor.remove(future)) {
+                            state.set(task, 4);
+                        }
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        half.await();
+        executor.shutdown();
+        join(workers, error, seed);
+        check("executor", "awaitTermination", executor.awaitTermination(10, TimeUnit.SECONDS), true);
+        check("executor", "queue isEmpty", executor.getQueue().isEmpty(), true);
+        int[] count = new int[5];
+        for (int i = 0; i < operations; i++) {
+            int run = runs.get(i);
+            int s = state.get(i);
+            count[s]++;
+            // cancel(false)可能发生在任务执行期间，所以被取消的任务也可能执行过一次
+            if (run > 1 || (run == 1 && (s == 2 || s == 4)) || (run == 0 && s == 1)) {
+                fail("executor", "task " + i + " in state " + s + " ran " + run + " times");
+            }
+        }
+        System.out.println("executed: " + count[1] + ", rejected: " + count[2] + ", cancelled: " + count[3]
+                + ", removed: " + count[4]);
+    }
+
+    private static void join(List<Thread> workers, AtomicReference<Throwable> error, long seed)
+            throws InterruptedException {
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (error.get() != null) {
+            throw new AssertionError("seed " + seed, error.get());
+        }
+    }
+
+    private static void check(String phase, String what, Object actual, Object expected) {
+        if (actual == null ? expected != null : !actual.equals(expected)) {
+            fail(phase, what + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    private static void fail(String phase, String message) {
+        throw new AssertionError(phase + ", " + message);
+    }
+
+}
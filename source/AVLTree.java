@@ -0,0 +1,307 @@
+/**
+ * AVL树（自平衡二分搜索树）
+ * 任意节点左右子树的高度差不超过1，树高不超过1.44 * log(n)
+ * 对外提供和BinarySearchTree相同的add/contains/remove/min/removeMin接口
+ */
+public class AVLTree<E extends Comparable<E>> {
+
+    private class Node {
+
+        private E val;
+        private Node left;
+        private Node right;
+        // 以该节点为根的子树高度，叶子节点高度为1
+        private int height;
+
+        public Node(E val) {
+            this.val = val;
+            this.left = null;
+            this.right = null;
+            this.height = 1;
+        }
+    }
+
+    // 根节点
+    private Node root;
+    // 节点数
+    private int size;
+
+    public AVLTree() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 树的高度，空树为0
+     *
+     * @return
+     */
+    public int height() {
+        return height(root);
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * 平衡因子：左子树高度 - 右子树高度
+     *
+     * @param node
+     * @return
+     */
+    private int balanceFactor(Node node) {
+        return height(node.left) - height(node.right);
+    }
+
+    private void updateHeight(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+    }
+
+    /**
+     * 右旋转
+     *         y                x
+     *        / \             /   \
+     *       x   T4          z     y
+     *      / \      ->     / \   / \
+     *     z   T3          T1 T2 T3 T4
+     *    / \
+     *   T1 T2
+     *
+     * @param y
+     * @return 旋转后的根节点
+     */
+    private Node rightRotate(Node y) {
+        Node x = y.left;
+        y.left = x.right;
+        x.right = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    /**
+     * 左旋转
+     *     y                    x
+     *    / \                 /   \
+     *   T1  x               y     z
+     *      / \      ->     / \   / \
+     *     T2  z           T1 T2 T3 T4
+     *        / \
+     *       T3 T4
+     *
+     * @param y
+     * @return 旋转后的根节点
+     */
+    private Node leftRotate(Node y) {
+        Node x = y.right;
+        y.right = x.left;
+        x.left = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    /**
+     * 更新node的高度，并在失衡时通过旋转恢复平衡
+     *
+     * @param node
+     * @return 恢复平衡后的子树根节点
+     */
+    private Node rebalance(Node node) {
+        updateHeight(node);
+        int factor = balanceFactor(node);
+        if (factor > 1) {
+            if (balanceFactor(node.left) < 0) {
+                // LR
+                node.left = leftRotate(node.left);
+            }
+            // LL
+            return rightRotate(node);
+        }
+        if (factor < -1) {
+            if (balanceFactor(node.right) > 0) {
+                // RL
+                node.right = rightRotate(node.right);
+            }
+            // RR
+            return leftRotate(node);
+        }
+        return node;
+    }
+
+    /**
+     * 新增节点
+     *
+     * @param val
+     */
+    public void add(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        root = add(root, val);
+    }
+
+    /**
+     * 向以node为根节点的子树中插入元素
+     * 并且返回插入并恢复平衡后的子树的根节点
+     *
+     * @param node
+     * @param val
+     * @return
+     */
+    private Node add(Node node, E val) {
+        if (node == null) {
+            size++;
+            return new Node(val);
+        }
+        int cmp = val.compareTo(node.val);
+        if (cmp < 0) {
+            node.left = add(node.left, val);
+        } else if (cmp > 0) {
+            node.right = add(node.right, val);
+        } else {
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * 是否包含某个元素
+     *
+     * @param val
+     * @return
+     */
+    public boolean contains(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        return getNode(val) != null;
+    }
+
+    private Node getNode(E val) {
+        Node curr = root;
+        while (curr != null) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp == 0) {
+                return curr;
+            }
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+        return null;
+    }
+
+    /**
+     * 找到最小的元素
+     *
+     * @return
+     */
+    public E min() {
+        if (root == null) {
+            return null;
+        }
+        return min(root).val;
+    }
+
+    private Node min(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    /**
+     * 删除最小的元素
+     *
+     * @return 被删除的元素，树为空时返回null
+     */
+    public E removeMin() {
+        if (root == null) {
+            return null;
+        }
+        E result = min();
+        root = removeMin(root);
+        return result;
+    }
+
+    /**
+     * 删除以node为根节点的子树中的最小节点，并返回恢复平衡后的根节点
+     *
+     * @param node
+     * @return
+     */
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            Node right = node.right;
+            node.right = null;
+            size--;
+            return right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    /**
+     * 删除指定的元素
+     *
+     * @param val
+     * @return 被删除的元素，不存在时返回null
+     */
+    public E remove(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        Node node = getNode(val);
+        if (node == null) {
+            return null;
+        }
+        root = remove(root, val);
+        return node.val;
+    }
+
+    /**
+     * 删除以node为根节点的子树中的指定元素（调用前已确认存在），并返回恢复平衡后的根节点
+     *
+     * @param node
+     * @param val
+     * @return
+     */
+    private Node remove(Node node, E val) {
+        int cmp = val.compareTo(node.val);
+        if (cmp < 0) {
+            node.left = remove(node.left, val);
+            return rebalance(node);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, val);
+            return rebalance(node);
+        }
+        if (node.right == null) {
+            // 只有左子树（包括叶子节点）
+            Node left = node.left;
+            node.left = null;
+            size--;
+            return left;
+        } else if (node.left == null) {
+            // 只有右子树
+            Node right = node.right;
+            node.right = null;
+            size--;
+            return right;
+        }
+        // 既有左子树，又有右子树，用后继节点替代当前节点（size在removeMin中减少）
+        Node successor = min(node.right);
+        successor.right = removeMin(node.right);
+        successor.left = node.left;
+        node.left = node.right = null;
+        return rebalance(successor);
+    }
+
+}
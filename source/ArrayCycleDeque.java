@@ -0,0 +1,275 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 数组实现的循环双端队列
+ * 和ArrayCycleQueue一样，数组长度是2的幂，head指向第一个元素，最后一个元素是 (head + size - 1) & mask
+ * 两端都可以O(1)新增和删除，任意位置O(1)随机访问，除扩容外不分配对象
+ *
+ * 有界模式（bounded）下容量固定，队满时：
+ * addLast覆盖最旧的（第一个）元素，addFirst覆盖最后一个元素，适合固定内存的历史记录/撤销缓冲
+ *
+ * 迭代器是fail-fast的：迭代过程中队列被修改（不包括迭代器自身），会抛出ConcurrentModificationException
+ */
+public class ArrayCycleDeque<E> implements Iterable<E> {
+
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private E[] table;
+    // table.length - 1
+    private int mask;
+    private int size;
+    // 第一个元素的下标
+    private int head;
+    // 有界模式下的容量，0表示无界
+    private final int bound;
+    // 结构性修改的次数，用于迭代器快速失败
+    private int modCount;
+
+    public ArrayCycleDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayCycleDeque(int initCapacity) {
+        this(initCapacity, 0);
+    }
+
+    private ArrayCycleDeque(int initCapacity, int bound) {
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        table = (E[]) new Object[RingArrays.powerOfTwo(initCapacity)];
+        mask = table.length - 1;
+        size = 0;
+        head = 0;
+        this.bound = bound;
+    }
+
+    /**
+     * 创建有界的双端队列，队满时覆盖另一端的元素
+     *
+     * @param capacity 容量，不要求是2的幂
+     * @return
+     */
+    public static <E> ArrayCycleDeque<E> bounded(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("illegal capacity, must be positive but is " + capacity);
+        }
+        return new ArrayCycleDeque<>(capacity, capacity);
+    }
+
+    public boolean empty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否是有界模式
+     *
+     * @return
+     */
+    public boolean isBounded() {
+        return bound > 0;
+    }
+
+    /**
+     * 容量，有界模式下是创建时指定的容量
+     *
+     * @return
+     */
+    public int capacity() {
+        return bound > 0 ? bound : table.length;
+    }
+
+    /**
+     * 队满时的处理：无界模式扩容；有界模式返回true，由调用方覆盖另一端的元素
+     *
+     * @return 是否需要覆盖
+     */
+    private boolean full() {
+        if (bound > 0) {
+            return size == bound;
+        }
+        if (size == table.length) {
+            resize(RingArrays.powerOfTwo(table.length + 1));
+        }
+        return false;
+    }
+
+    /**
+     * 在头部新增
+     *
+     * @param e
+     */
+    public void addFirst(E e) {
+        if (full()) {
+            // 覆盖最后一个元素：新元素放在head前面，最后一个元素就是head - 1 + size
+            table[(head + size - 1) & mask] = null;
+            size--;
+        }
+        head = (head - 1) & mask;
+        table[head] = e;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * 在尾部新增
+     *
+     * @param e
+     */
+    public void addLast(E e) {
+        if (full()) {
+            // 覆盖最旧的（第一个）元素
+            table[head] = null;
+            head = (head + 1) & mask;
+            size--;
+        }
+        table[(head + size) & mask] = e;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * 删除并返回第一个元素
+     *
+     * @return 队列为空时返回null
+     */
+    public E pollFirst() {
+        if (size == 0) {
+            return null;
+        }
+        E result = table[head];
+        table[head] = null;
+        head = (head + 1) & mask;
+        size--;
+        modCount++;
+        return result;
+    }
+
+    /**
+     * 删除并返回最后一个元素
+     *
+     * @return 队列为空时返回null
+     */
+    public E pollLast() {
+        if (size == 0) {
+            return null;
+        }
+        int tail = (head + size - 1) & mask;
+        E result = table[tail];
+        table[tail] = null;
+        size--;
+        modCount++;
+        return result;
+    }
+
+    /**
+     * 查看第一个元素
+     *
+     * @return 队列为空时返回null
+     */
+    public E peekFirst() {
+        return size == 0 ? null : table[head];
+    }
+
+    /**
+     * 查看最后一个元素
+     *
+     * @return 队列为空时返回null
+     */
+    public E peekLast() {
+        return size == 0 ? null : table[(head + size - 1) & mask];
+    }
+
+    /**
+     * 获取从头部数起的第index个元素
+     *
+     * @param index
+     * @return
+     */
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("illegal index, max " + size + " min 0 but index is " + index);
+        }
+        return table[(head + index) & mask];
+    }
+
+    /**
+     * 清除所有元素，保留容量
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            table[(head + i) & mask] = null;
+        }
+        size = 0;
+        head = 0;
+        modCount++;
+    }
+
+    /**
+     * 扩容，元素复制到新数组的开头
+     *
+     * @param newCapacity 2的幂，不小于size
+     */
+    private void resize(int newCapacity) {
+        table = RingArrays.resize(table, head, size, newCapacity);
+        mask = newCapacity - 1;
+        head = 0;
+    }
+
+    /**
+     * 从头到尾的迭代器
+     *
+     * @return
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<E> {
+
+        // 下一个元素相对于head的偏移
+        private int cursor;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            return table[(head + cursor++) & mask];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ capacity: " + capacity() + ", size: " + size + ", item: first -> [");
+        for (int i = 0; i < size; i++) {
+            result.append(table[(head + i) & mask]);
+            if (i != size - 1) {
+                result.append(", ");
+            }
+        }
+        result.append("] -> last }");
+        return result.toString();
+    }
+
+}
@@ -1,6 +1,7 @@
-
 /**
  * 数组实现循环队列
+ * 数组长度始终是2的幂，下标回绕用 & mask 代替 % table.length
+ * head指向队首，队尾是 (head + size) & mask，用size区分队空和队满，不需要浪费一个位置
  */
 public class ArrayCycleQueue<E> {
 
@@ -8,27 +9,36 @@ public class ArrayCycleQueue<E> {
      * 默认容量
      */
     private static final int DEFAULT_CAPACITY = 10;
-    /**
-     * 扩容倍数
-     */
-    private static final int RESIZE_RATE = 2;
 
     private E[] table;
+    // table.length - 1
+    private int mask;
     private int size;
-    // 头指针
+    // 头指针，始终在 [0, table.length) 范围内
     private int head;
-    // 尾指针
-    private int tail;
+    // 扩容/缩容策略，计算出的容量会向上取整到2的幂
+    private final GrowthPolicy policy;
 
     public ArrayCycleQueue() {
         this(DEFAULT_CAPACITY);
     }
 
     public ArrayCycleQueue(int initCapacity) {
-        table = (E[]) new Object[initCapacity + 1];
+        this(initCapacity, GrowthPolicy.DEFAULT);
+    }
+
+    public ArrayCycleQueue(int initCapacity, GrowthPolicy policy) {
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        this.policy = policy;
+        table = (E[]) new Object[RingArrays.powerOfTwo(initCapacity)];
+        mask = table.length - 1;
         size = 0;
         head = 0;
-        tail = 0;
     }
 
     public boolean empty() {
@@ -36,11 +46,10 @@ public class ArrayCycleQueue<E> {
     }
 
     public void add(E e) {
-        if (size == table.length - 1) {
-            resize(RESIZE_RATE * capacity());
+        if (size == table.length) {
+            resize(RingArrays.powerOfTwo(policy.grow(table.length, size + 1)));
         }
-        tail = tail % table.length;
-        table[tail++] = e;
+        table[(head + size) & mask] = e;
         size++;
     }
 
@@ -49,9 +58,10 @@ public class ArrayCycleQueue<E> {
             throw new IllegalStateException("queue is empty");
         }
         E result = table[head];
-        head = head % table.length;
-        table[head++] = null;
+        table[head] = null;
+        head = (head + 1) & mask;
         size--;
+        shrink();
         return result;
     }
 
@@ -67,27 +77,38 @@ public class ArrayCycleQueue<E> {
     }
 
     public int capacity() {
-        return table.length - 1;
+        return table.length;
     }
 
-    private void resize(int newCapacity) {
-        E[] newArray = (E[]) new Object[newCapacity + 1];
-        int j = 0;
-        for (int i = head; (i % table.length) != tail; i++) {
-            newArray[j++] = table[i % table.length];
+    // 按照策略判断是否需要缩容，缩容后的容量也是2的幂
+    private void shrink() {
+        int newCapacity = policy.shrink(table.length, size);
+        if (newCapacity < table.length) {
+            newCapacity = Math.min(RingArrays.powerOfTwo(Math.max(newCapacity, size)), table.length);
+            if (newCapacity < table.length) {
+                resize(newCapacity);
+            }
         }
-        table = newArray;
+    }
+
+    /**
+     * 扩容/缩容，元素复制到新数组的开头
+     *
+     * @param newCapacity 2的幂，不小于size
+     */
+    private void resize(int newCapacity) {
+        table = RingArrays.resize(table, head, size, newCapacity);
+        mask = newCapacity - 1;
         head = 0;
-        tail = size;
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
         result.append("{ capacity: " + capacity() + ", size: " + size + ", item: head -> [");
-        for (int i = head; (i % table.length) != tail; i++) {
-            result.append(table[(i % table.length)]);
-            if ((i % table.length) != tail - 1) {
+        for (int i = 0; i < size; i++) {
+            result.append(table[(head + i) & mask]);
+            if (i != size - 1) {
                 result.append(", ");
             }
         }
@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * 动态数组实现ArrayList
  */
@@ -8,27 +10,43 @@ public class ArrayList<E> {
      */
     private static final int DEFAULT_CAPACITY = 10;
     /**
-     * 扩容倍数
+     * 估算复制字节数时使用的引用大小（开启压缩指针时为4字节）
      */
-    private static final int RESIZE_RATE = 2;
+    private static final int REFERENCE_BYTES = 4;
 
     private E[] table;
     private int size;
+    // 扩容/缩容策略
+    private final GrowthPolicy policy;
+    // 扩容/缩容次数
+    private long resizeCount;
+    // 扩容/缩容时复制的元素个数
+    private long copiedElements;
 
     public ArrayList() {
         this(DEFAULT_CAPACITY);
     }
 
     public ArrayList(int initCapacity) {
+        this(initCapacity, GrowthPolicy.DEFAULT);
+    }
+
+    public ArrayList(int initCapacity, GrowthPolicy policy) {
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
         table = (E[]) new Object[initCapacity];
         size = 0;
+        this.policy = policy;
     }
 
     public ArrayList(E[] arr) {
+        policy = GrowthPolicy.DEFAULT;
         table = (E[]) new Object[arr.length];
-        for (int i = 0; i < arr.length; i++) {
-            table[i] = arr[i];
-        }
+        System.arraycopy(arr, 0, table, 0, arr.length);
         size = arr.length;
     }
 
@@ -79,12 +97,10 @@ public class ArrayList<E> {
             throw new IllegalArgumentException("illegal index, max " + table.length + " min 0 but index is " + index);
         }
         if (size == table.length) {
-            resize(RESIZE_RATE * size);
-        }
-        // 移动数组项时，必须按照从后到前的顺序
-        for (int i = size; i > index; i--) {
-            table[i] = table[i - 1];
+            ensureCapacity(size + 1);
         }
+        // System.arraycopy能正确处理源和目标重叠的情况
+        System.arraycopy(table, index, table, index + 1, size - index);
         table[index] = e;
         size++;
         return true;
@@ -99,6 +115,48 @@ public class ArrayList<E> {
         return add(size, e);
     }
 
+    /**
+     * 在指定位置批量新增src[off, off + len)中的元素
+     * 最多扩容一次，元素只整体移动一次
+     * @param index 下标
+     * @param src 源数组
+     * @param off 源数组起始位置
+     * @param len 新增的元素个数
+     * @return 是否成功
+     */
+    public boolean addAll(int index, E[] src, int off, int len) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("illegal index, max " + size + " min 0 but index is " + index);
+        }
+        if (off < 0 || len < 0 || off + len > src.length) {
+            throw new IllegalArgumentException("illegal range, length " + src.length + " but off is " + off + " len is " + len);
+        }
+        ensureCapacity(size + len);
+        System.arraycopy(table, index, table, index + len, size - index);
+        System.arraycopy(src, off, table, index, len);
+        size += len;
+        return true;
+    }
+
+    /**
+     * 在指定位置插入整个数组
+     * @param index 下标
+     * @param src 源数组
+     * @return 是否成功
+     */
+    public boolean insertAll(int index, E[] src) {
+        return addAll(index, src, 0, src.length);
+    }
+
+    /**
+     * 尾部批量新增
+     * @param src 源数组
+     * @return 是否成功
+     */
+    public boolean addAll(E[] src) {
+        return addAll(size, src, 0, src.length);
+    }
+
     /**
      * 删除指定位置的元素
      * @param index 下标
@@ -110,15 +168,10 @@ public class ArrayList<E> {
         }
         // 记录删除的项，用于返回
         E ret = table[index];
-        // 移动数组项时，必须按照从前到后的顺序
-        for (int i = index; i < size - 1; i++) {
-            table[i] = table[i + 1];
-        }
+        System.arraycopy(table, index + 1, table, index, size - index - 1);
         table[size - 1] = null;
         size--;
-        if ((size == table.length / 4) && (table.length / RESIZE_RATE != 0)) {
-            resize(table.length / RESIZE_RATE);
-        }
+        shrink();
         return ret;
     }
 
@@ -130,6 +183,23 @@ public class ArrayList<E> {
         return remove(size - 1);
     }
 
+    /**
+     * 删除[from, to)范围内的元素
+     * 元素只整体移动一次，最多缩容一次
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IllegalArgumentException("illegal range, size " + size + " but from is " + from + " to is " + to);
+        }
+        int len = to - from;
+        System.arraycopy(table, to, table, from, size - to);
+        Arrays.fill(table, size - len, size, null);
+        size -= len;
+        shrink();
+    }
+
     /**
      * 替换指定位置元素
      * @param index 下标
@@ -170,9 +240,7 @@ public class ArrayList<E> {
      * @return
      */
     public boolean clear() {
-        for (int i = 0; i < size; i++) {
-            table[i] = null;
-        }
+        Arrays.fill(table, 0, size, null);
         size = 0;
         return true;
     }
@@ -191,13 +259,65 @@ public class ArrayList<E> {
         table[j] = temp;
     }
 
-    // 扩容
+    /**
+     * 保证容量至少为minCapacity
+     * 批量新增前调用可以避免多次扩容
+     * @param minCapacity 最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > table.length) {
+            resize(policy.grow(table.length, minCapacity));
+        }
+    }
+
+    /**
+     * 把容量缩小到当前元素个数
+     */
+    public void trimToSize() {
+        if (size < table.length) {
+            resize(size);
+        }
+    }
+
+    /**
+     * 获取扩容/缩容策略
+     * @return
+     */
+    public GrowthPolicy growthPolicy() {
+        return policy;
+    }
+
+    /**
+     * 获取扩容/缩容（包括trimToSize）的次数
+     * @return
+     */
+    public long resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * 获取扩容/缩容时复制的字节数（按每个引用4字节估算）
+     * @return
+     */
+    public long copiedBytes() {
+        return copiedElements * REFERENCE_BYTES;
+    }
+
+    // 按照策略判断是否需要缩容
+    private void shrink() {
+        int newCapacity = policy.shrink(table.length, size);
+        if (newCapacity < table.length) {
+            resize(newCapacity);
+        }
+    }
+
+    // 扩容/缩容
     private void resize(int newCapacity) {
         E[] newArray = (E[]) new Object[newCapacity];
-        for (int i = 0; i < size; i++) {
-            newArray[i] = table[i];
-        }
+        System.arraycopy(table, 0, newArray, 0, size);
         table = newArray;
+        resizeCount++;
+        copiedElements += size;
     }
 
     @Override
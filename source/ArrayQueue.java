@@ -1,34 +1,130 @@
+import java.util.Collection;
+import java.util.function.Consumer;
 
+/**
+ * 数组实现的队列
+ * 底层是环形数组：head指向队首，队尾是 (head + size) 处，到达数组末尾后回到0
+ * 出队只移动head，不需要像ArrayList.remove(0)那样移动剩余的元素，offer/poll均摊O(1)
+ */
 public class ArrayQueue<E> {
 
-    private ArrayList<E> list;
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+    /**
+     * 扩容倍数
+     */
+    private static final int RESIZE_RATE = 2;
+
+    private E[] table;
+    private int size;
+    // 队首下标
+    private int head;
 
     public ArrayQueue() {
-        list = new ArrayList();
+        this(DEFAULT_CAPACITY);
     }
 
     public ArrayQueue(int initCapacity) {
-        list = new ArrayList(initCapacity);
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        table = (E[]) new Object[Math.max(initCapacity, 1)];
+        size = 0;
+        head = 0;
     }
 
     public boolean empty() {
-        return list.size() == 0;
+        return size == 0;
     }
 
     /**
-     * 出队
+     * 第i个元素在数组中的下标
+     *
+     * @param i 相对于队首的偏移，0 <= i <= size
+     * @return
+     */
+    private int index(int i) {
+        int index = head + i;
+        return index >= table.length ? index - table.length : index;
+    }
+
+    /**
+     * 入队
      * @param e
      */
     public void offer(E e) {
-        list.add(e);
+        if (size == table.length) {
+            resize(RESIZE_RATE * table.length);
+        }
+        table[index(size)] = e;
+        size++;
     }
 
     /**
-     * 入队
+     * 批量入队，最多扩容一次
+     * @param c
+     */
+    public void offerAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        int required = size + c.size();
+        if (required > table.length) {
+            resize(Math.max(RESIZE_RATE * table.length, required));
+        }
+        int tail = index(size);
+        for (E e : c) {
+            table[tail] = e;
+            if (++tail == table.length) {
+                tail = 0;
+            }
+        }
+        size = required;
+    }
+
+    /**
+     * 出队
      * @return
      */
     public E poll() {
-        return list.remove(0);
+        if (empty()) {
+            throw new IllegalStateException("queue is empty");
+        }
+        E result = table[head];
+        // 释放引用，避免内存泄漏
+        table[head] = null;
+        if (++head == table.length) {
+            head = 0;
+        }
+        size--;
+        return result;
+    }
+
+    /**
+     * 批量出队，按顺序把最多max个元素交给consumer处理
+     * 个数在开始前确定，循环内不需要判空；每取出一个元素就修改head和size，
+     * consumer抛出异常时，已经交出的元素不会留在队列中，剩余元素保持原样
+     * @param consumer
+     * @param max 最多出队的元素个数
+     * @return 实际出队的元素个数
+     */
+    public int drainTo(Consumer<? super E> consumer, int max) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        int n = Math.min(Math.max(max, 0), size);
+        for (int k = 0; k < n; k++) {
+            E e = table[head];
+            table[head] = null;
+            if (++head == table.length) {
+                head = 0;
+            }
+            size--;
+            consumer.accept(e);
+        }
+        return n;
     }
 
     /**
@@ -36,20 +132,40 @@ public class ArrayQueue<E> {
      * @return
      */
     public E peek() {
-        return list.get(0);
+        if (empty()) {
+            throw new IllegalStateException("queue is empty");
+        }
+        return table[head];
     }
 
     public int size() {
-        return list.size();
+        return size;
+    }
+
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * 扩容，最多两次arraycopy：先复制head到数组末尾的部分，再复制回绕到数组开头的部分
+     * @param newCapacity
+     */
+    private void resize(int newCapacity) {
+        E[] newArray = (E[]) new Object[newCapacity];
+        int firstPart = Math.min(size, table.length - head);
+        System.arraycopy(table, head, newArray, 0, firstPart);
+        System.arraycopy(table, 0, newArray, firstPart, size - firstPart);
+        table = newArray;
+        head = 0;
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
-        result.append("{ capacity: " + list.capacity() + ", size: " + list.size() + ", item: head -> [");
-        for (int i = 0; i < list.size(); i++) {
-            result.append(list.get(i));
-            if (i != list.size() - 1) {
+        result.append("{ capacity: " + capacity() + ", size: " + size + ", item: head -> [");
+        for (int i = 0; i < size; i++) {
+            result.append(table[index(i)]);
+            if (i != size - 1) {
                 result.append(", ");
             }
         }
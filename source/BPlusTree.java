@@ -0,0 +1,546 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * B+树实现的有序集合
+ * 每个节点用连续的数组保存最多 order - 1 个元素，树高约为 log(order/2, n)，
+ * 相比每个元素一个节点的BinarySearchTree，节点数少得多，查找时缓存未命中也少得多
+ * 所有元素都保存在叶子节点中，叶子节点之间按顺序链接，便于范围扫描
+ * 提供和BinarySearchTree相同的add/contains/remove/min接口
+ */
+public class BPlusTree<E extends Comparable<E>> implements Iterable<E> {
+
+    /**
+     * 默认阶数（每个节点最多的孩子数）
+     */
+    private static final int DEFAULT_ORDER = 64;
+
+    /**
+     * 节点需要放进数组，所以定义为静态类
+     * keys多留一个位置，插入时允许暂时溢出，随后再分裂
+     */
+    private static abstract class Node {
+        // 元素个数
+        int n;
+        final Object[] keys;
+
+        Node(int order) {
+            this.keys = new Object[order];
+        }
+    }
+
+    private static class Leaf extends Node {
+        // 下一个叶子节点
+        Leaf next;
+
+        Leaf(int order) {
+            super(order);
+        }
+    }
+
+    /**
+     * 内部节点：children[i]中的元素都小于keys[i]，children[i + 1]中的元素都大于等于keys[i]
+     */
+    private static class Internal extends Node {
+        final Node[] children;
+
+        Internal(int order) {
+            super(order);
+            this.children = new Node[order + 1];
+        }
+    }
+
+    // 阶数
+    private final int order;
+    // 非根节点最少的元素个数
+    private final int minKeys;
+    // 根节点
+    private Node root;
+    // 最左边的叶子节点，合并时总是保留左边的节点，所以它不会改变
+    private final Leaf first;
+    // 元素个数
+    private int size;
+
+    public BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * @param order 阶数，即每个节点最多的孩子数，至少为3
+     */
+    public BPlusTree(int order) {
+        if (order < 3) {
+            throw new IllegalArgumentException("illegal order, min 3 but order is " + order);
+        }
+        this.order = order;
+        this.minKeys = (order - 1) / 2;
+        this.first = new Leaf(order);
+        this.root = first;
+        this.size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int order() {
+        return order;
+    }
+
+    /**
+     * 树的高度，只有一个叶子节点时为1
+     *
+     * @return
+     */
+    public int height() {
+        int height = 1;
+        Node curr = root;
+        while (curr instanceof Internal) {
+            curr = ((Internal) curr).children[0];
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * 在keys[0, n)中二分查找，返回值同Arrays.binarySearch
+     *
+     * @param node
+     * @param key
+     * @return 找到时返回下标，否则返回 -(插入位置) - 1
+     */
+    private int search(Node node, E key) {
+        int lo = 0;
+        int hi = node.n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = ((E) node.keys[mid]).compareTo(key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * 在内部节点中找到key所在的孩子下标
+     *
+     * @param node
+     * @param key
+     * @return
+     */
+    private int childIndex(Internal node, E key) {
+        int index = search(node, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * 找到key所在的叶子节点
+     *
+     * @param key
+     * @return
+     */
+    private Leaf findLeaf(E key) {
+        Node curr = root;
+        while (curr instanceof Internal) {
+            Internal internal = (Internal) curr;
+            curr = internal.children[childIndex(internal, key)];
+        }
+        return (Leaf) curr;
+    }
+
+    /**
+     * 是否包含某个元素（非递归实现）
+     *
+     * @param val
+     * @return
+     */
+    public boolean contains(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        Leaf leaf = findLeaf(val);
+        return search(leaf, val) >= 0;
+    }
+
+    /**
+     * 新增元素
+     *
+     * @param val
+     * @return 元素已存在时返回false
+     */
+    public boolean add(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (!add(root, val)) {
+            return false;
+        }
+        size++;
+        if (root.n == order) {
+            // 根节点溢出，树长高一层
+            Internal newRoot = new Internal(order);
+            newRoot.children[0] = root;
+            root = newRoot;
+            split(newRoot, 0);
+        }
+        return true;
+    }
+
+    /**
+     * 向以node为根的子树中插入元素，孩子溢出时由父节点负责分裂
+     * 递归深度即树高，不会栈溢出
+     *
+     * @param node
+     * @param val
+     * @return 是否插入成功
+     */
+    private boolean add(Node node, E val) {
+        if (node instanceof Leaf) {
+            int index = search(node, val);
+            if (index >= 0) {
+                return false;
+            }
+            insertAt(node.keys, node.n, -index - 1, val);
+            node.n++;
+            return true;
+        }
+        Internal internal = (Internal) node;
+        int i = childIndex(internal, val);
+        if (!add(internal.children[i], val)) {
+            return false;
+        }
+        if (internal.children[i].n == order) {
+            split(internal, i);
+        }
+        return true;
+    }
+
+    /**
+     * 把parent的第i个孩子（已溢出）分裂成两个节点
+     *
+     * @param parent
+     * @param i
+     */
+    private void split(Internal parent, int i) {
+        Node child = parent.children[i];
+        int mid = child.n / 2;
+        Node right;
+        Object separator;
+        if (child instanceof Leaf) {
+            // 叶子节点：右半部分（包括mid）移到新节点，新节点的第一个元素复制到父节点
+            Leaf leaf = (Leaf) child;
+            Leaf sibling = new Leaf(order);
+            sibling.n = leaf.n - mid;
+            System.arraycopy(leaf.keys, mid, sibling.keys, 0, sibling.n);
+            clear(leaf.keys, mid, leaf.n);
+            leaf.n = mid;
+            sibling.next = leaf.next;
+            leaf.next = sibling;
+            separator = sibling.keys[0];
+            right = sibling;
+        } else {
+            // 内部节点：mid上移到父节点，右半部分移到新节点
+            Internal internal = (Internal) child;
+            Internal sibling = new Internal(order);
+            separator = internal.keys[mid];
+            sibling.n = internal.n - mid - 1;
+            System.arraycopy(internal.keys, mid + 1, sibling.keys, 0, sibling.n);
+            System.arraycopy(internal.children, mid + 1, sibling.children, 0, sibling.n + 1);
+            clear(internal.keys, mid, internal.n);
+            clear(internal.children, mid + 1, internal.n + 1);
+            internal.n = mid;
+            right = sibling;
+        }
+        insertAt(parent.keys, parent.n, i, separator);
+        insertAt(parent.children, parent.n + 1, i + 1, right);
+        parent.n++;
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param val
+     * @return 被删除的元素，不存在时返回null
+     */
+    public E remove(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        E result = remove(root, val);
+        if (result == null) {
+            return null;
+        }
+        size--;
+        if (root instanceof Internal && root.n == 0) {
+            // 根节点只剩一个孩子，树降低一层
+            root = ((Internal) root).children[0];
+        }
+        return result;
+    }
+
+    /**
+     * 从以node为根的子树中删除元素，孩子元素不足时由父节点负责借位或合并
+     *
+     * @param node
+     * @param val
+     * @return 被删除的元素，不存在时返回null
+     */
+    private E remove(Node node, E val) {
+        if (node instanceof Leaf) {
+            int index = search(node, val);
+            if (index < 0) {
+                return null;
+            }
+            E result = (E) node.keys[index];
+            removeAt(node.keys, node.n, index);
+            node.n--;
+            return result;
+        }
+        Internal internal = (Internal) node;
+        int i = childIndex(internal, val);
+        E result = remove(internal.children[i], val);
+        if (result != null && internal.children[i].n < minKeys) {
+            rebalance(internal, i);
+        }
+        return result;
+    }
+
+    /**
+     * parent的第i个孩子元素不足：优先向左右兄弟借一个，兄弟也不富余时和兄弟合并
+     *
+     * @param parent
+     * @param i
+     */
+    private void rebalance(Internal parent, int i) {
+        if (i > 0 && parent.children[i - 1].n > minKeys) {
+            borrowFromLeft(parent, i);
+        } else if (i < parent.n && parent.children[i + 1].n > minKeys) {
+            borrowFromRight(parent, i);
+        } else if (i > 0) {
+            merge(parent, i - 1);
+        } else {
+            merge(parent, i);
+        }
+    }
+
+    private void borrowFromLeft(Internal parent, int i) {
+        Node child = parent.children[i];
+        Node left = parent.children[i - 1];
+        if (child instanceof Leaf) {
+            insertAt(child.keys, child.n, 0, left.keys[left.n - 1]);
+            parent.keys[i - 1] = child.keys[0];
+        } else {
+            Internal c = (Internal) child;
+            Internal l = (Internal) left;
+            insertAt(c.keys, c.n, 0, parent.keys[i - 1]);
+            insertAt(c.children, c.n + 1, 0, l.children[l.n]);
+            l.children[l.n] = null;
+            parent.keys[i - 1] = l.keys[l.n - 1];
+        }
+        left.keys[left.n - 1] = null;
+        left.n--;
+        child.n++;
+    }
+
+    private void borrowFromRight(Internal parent, int i) {
+        Node child = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (child instanceof Leaf) {
+            child.keys[child.n] = right.keys[0];
+            removeAt(right.keys, right.n, 0);
+            parent.keys[i] = right.keys[0];
+        } else {
+            Internal c = (Internal) child;
+            Internal r = (Internal) right;
+            c.keys[c.n] = parent.keys[i];
+            c.children[c.n + 1] = r.children[0];
+            parent.keys[i] = r.keys[0];
+            removeAt(r.keys, r.n, 0);
+            removeAt(r.children, r.n + 1, 0);
+        }
+        right.n--;
+        child.n++;
+    }
+
+    /**
+     * 把parent的第i + 1个孩子合并到第i个孩子中
+     *
+     * @param parent
+     * @param i
+     */
+    private void merge(Internal parent, int i) {
+        Node left = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (left instanceof Leaf) {
+            System.arraycopy(right.keys, 0, left.keys, left.n, right.n);
+            left.n += right.n;
+            ((Leaf) left).next = ((Leaf) right).next;
+        } else {
+            Internal l = (Internal) left;
+            Internal r = (Internal) right;
+            // 父节点中的分隔元素下移
+            l.keys[l.n] = parent.keys[i];
+            System.arraycopy(r.keys, 0, l.keys, l.n + 1, r.n);
+            System.arraycopy(r.children, 0, l.children, l.n + 1, r.n + 1);
+            l.n += r.n + 1;
+        }
+        removeAt(parent.keys, parent.n, i);
+        removeAt(parent.children, parent.n + 1, i + 1);
+        parent.n--;
+    }
+
+    /**
+     * 在arr[0, n)的index位置插入元素，调用方保证数组有空位
+     */
+    private static void insertAt(Object[] arr, int n, int index, Object val) {
+        System.arraycopy(arr, index, arr, index + 1, n - index);
+        arr[index] = val;
+    }
+
+    /**
+     * 删除arr[0, n)中index位置的元素，并把空出的位置置为null
+     */
+    private static void removeAt(Object[] arr, int n, int index) {
+        System.arraycopy(arr, index + 1, arr, index, n - index - 1);
+        arr[n - 1] = null;
+    }
+
+    private static void clear(Object[] arr, int from, int to) {
+        for (int i = from; i < to; i++) {
+            arr[i] = null;
+        }
+    }
+
+    /**
+     * 最小的元素
+     *
+     * @return 树为空时返回null
+     */
+    public E min() {
+        return size == 0 ? null : (E) first.keys[0];
+    }
+
+    /**
+     * 最大的元素
+     *
+     * @return 树为空时返回null
+     */
+    public E max() {
+        if (size == 0) {
+            return null;
+        }
+        Node curr = root;
+        while (curr instanceof Internal) {
+            curr = ((Internal) curr).children[curr.n];
+        }
+        return (E) curr.keys[curr.n - 1];
+    }
+
+    /**
+     * 删除最小的元素
+     *
+     * @return 被删除的元素，树为空时返回null
+     */
+    public E removeMin() {
+        E min = min();
+        return min == null ? null : remove(min);
+    }
+
+    /**
+     * 按从小到大的顺序遍历所有元素
+     *
+     * @return
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new LeafIterator(first, 0, null);
+    }
+
+    /**
+     * 按从小到大的顺序遍历[lo, hi]范围内的元素
+     * 先定位到lo所在的叶子节点，之后沿着叶子链表顺序扫描
+     *
+     * @param lo
+     * @param hi
+     * @return
+     */
+    public Iterator<E> range(E lo, E hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (lo.compareTo(hi) > 0) {
+            throw new IllegalArgumentException("illegal range, lo " + lo + " is greater than hi " + hi);
+        }
+        Leaf leaf = findLeaf(lo);
+        int index = search(leaf, lo);
+        return new LeafIterator(leaf, index >= 0 ? index : -index - 1, hi);
+    }
+
+    /**
+     * 沿着叶子链表顺序扫描的迭代器
+     */
+    private class LeafIterator implements Iterator<E> {
+
+        private Leaf leaf;
+        private int index;
+        // 上界（包含），为null表示一直扫描到最后
+        private final E hi;
+
+        LeafIterator(Leaf leaf, int index, E hi) {
+            this.leaf = leaf;
+            this.index = index;
+            this.hi = hi;
+            skipExhausted();
+        }
+
+        /**
+         * 当前叶子节点扫描完时，跳到下一个非空叶子节点
+         */
+        private void skipExhausted() {
+            while (leaf != null && index >= leaf.n) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null && (hi == null || ((E) leaf.keys[index]).compareTo(hi) <= 0);
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E result = (E) leaf.keys[index++];
+            skipExhausted();
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ order: " + order + ", size: " + size + ", height: " + height() + ", item: [");
+        Iterator<E> it = iterator();
+        while (it.hasNext()) {
+            result.append(it.next());
+            if (it.hasNext()) {
+                result.append(", ");
+            }
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,290 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 基于二分搜索树的映射（key -> value）
+ * 和BinarySearchTree一样采用非递归实现，每个操作只下降一次，每层只比较一次
+ * 可以传入Comparator，否则要求key实现Comparable
+ * key和value都不允许为null，get返回null即表示不存在
+ */
+public class BSTMap<K, V> {
+
+    private class Node {
+
+        private K key;
+        private V value;
+        private Node left;
+        private Node right;
+
+        public Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+            this.left = null;
+            this.right = null;
+        }
+    }
+
+    // 根节点
+    private Node root;
+    // 节点数
+    private int size;
+    // 比较器，为null时使用key的自然顺序
+    private final Comparator<? super K> comparator;
+
+    public BSTMap() {
+        this(null);
+    }
+
+    public BSTMap(Comparator<? super K> comparator) {
+        this.root = null;
+        this.size = 0;
+        this.comparator = comparator;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int compare(K k1, K k2) {
+        if (comparator != null) {
+            return comparator.compare(k1, k2);
+        }
+        return ((Comparable<? super K>) k1).compareTo(k2);
+    }
+
+    private void checkNotNull(Object obj) {
+        if (obj == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+    }
+
+    /**
+     * 查找key对应的节点
+     *
+     * @param key
+     * @return 不存在时返回null
+     */
+    private Node getNode(K key) {
+        checkNotNull(key);
+        Node curr = root;
+        while (curr != null) {
+            int cmp = compare(key, curr.key);
+            if (cmp == 0) {
+                return curr;
+            }
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+        return null;
+    }
+
+    public V get(K key) {
+        Node node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    public boolean containsKey(K key) {
+        return getNode(key) != null;
+    }
+
+    /**
+     * 新增或者覆盖
+     *
+     * @param key
+     * @param value
+     * @return 旧的value，不存在时返回null
+     */
+    public V put(K key, V value) {
+        checkNotNull(key);
+        checkNotNull(value);
+        if (root == null) {
+            root = new Node(key, value);
+            size++;
+            return null;
+        }
+        Node curr = root;
+        while (true) {
+            int cmp = compare(key, curr.key);
+            if (cmp == 0) {
+                V old = curr.value;
+                curr.value = value;
+                return old;
+            }
+            Node next = cmp < 0 ? curr.left : curr.right;
+            if (next == null) {
+                link(curr, cmp, new Node(key, value));
+                return null;
+            }
+            curr = next;
+        }
+    }
+
+    /**
+     * key不存在时，用mappingFunction计算value并插入
+     * 查找和插入共用一次下降
+     *
+     * @param key
+     * @param mappingFunction 返回null时不插入
+     * @return 已存在的value或者新插入的value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        checkNotNull(key);
+        checkNotNull(mappingFunction);
+        Node parent = null;
+        int cmp = 0;
+        Node curr = root;
+        while (curr != null) {
+            cmp = compare(key, curr.key);
+            if (cmp == 0) {
+                return curr.value;
+            }
+            parent = curr;
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            link(parent, cmp, new Node(key, value));
+        }
+        return value;
+    }
+
+    /**
+     * key不存在时插入value，否则用remappingFunction合并新旧value
+     * 合并结果为null时删除该key，语义同java.util.Map#merge
+     *
+     * @param key
+     * @param value
+     * @param remappingFunction
+     * @return 新的value，被删除时返回null
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        checkNotNull(key);
+        checkNotNull(value);
+        checkNotNull(remappingFunction);
+        Node parent = null;
+        int cmp = 0;
+        Node curr = root;
+        while (curr != null) {
+            cmp = compare(key, curr.key);
+            if (cmp == 0) {
+                V merged = remappingFunction.apply(curr.value, value);
+                if (merged == null) {
+                    removeNode(parent, curr);
+                } else {
+                    curr.value = merged;
+                }
+                return merged;
+            }
+            parent = curr;
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+        link(parent, cmp, new Node(key, value));
+        return value;
+    }
+
+    /**
+     * 删除key
+     *
+     * @param key
+     * @return 被删除的value，不存在时返回null
+     */
+    public V remove(K key) {
+        checkNotNull(key);
+        Node parent = null;
+        Node curr = root;
+        while (curr != null) {
+            int cmp = compare(key, curr.key);
+            if (cmp == 0) {
+                V result = curr.value;
+                removeNode(parent, curr);
+                return result;
+            }
+            parent = curr;
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+        return null;
+    }
+
+    /**
+     * 把新节点挂到parent下面
+     *
+     * @param parent 为null表示树为空
+     * @param cmp 新节点的key和parent的key比较的结果
+     * @param node
+     */
+    private void link(Node parent, int cmp, Node node) {
+        if (parent == null) {
+            root = node;
+        } else if (cmp < 0) {
+            parent.left = node;
+        } else {
+            parent.right = node;
+        }
+        size++;
+    }
+
+    /**
+     * 删除node节点
+     *
+     * @param parent node的父节点，为null表示node是根节点
+     * @param node
+     */
+    private void removeNode(Node parent, Node node) {
+        if (node.left != null && node.right != null) {
+            // 既有左子树，又有右子树：用后继节点的键值替代当前节点，转而删除后继节点
+            Node successorParent = node;
+            Node successor = node.right;
+            while (successor.left != null) {
+                successorParent = successor;
+                successor = successor.left;
+            }
+            node.key = successor.key;
+            node.value = successor.value;
+            parent = successorParent;
+            node = successor;
+        }
+        // 此时node最多只有一个子树（包括叶子节点），用子树替代node
+        Node child = node.left != null ? node.left : node.right;
+        if (parent == null) {
+            root = child;
+        } else if (parent.left == node) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+        node.left = node.right = null;
+        size--;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ size: " + size + ", item: [");
+        // 非递归中序遍历，按key从小到大输出
+        Deque<Node> stack = new ArrayDeque<>();
+        Node curr = root;
+        boolean first = true;
+        while (curr != null || !stack.isEmpty()) {
+            while (curr != null) {
+                stack.push(curr);
+                curr = curr.left;
+            }
+            curr = stack.pop();
+            if (!first) {
+                result.append(", ");
+            }
+            result.append(curr.key + "=" + curr.value);
+            first = false;
+            curr = curr.right;
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
@@ -1,22 +1,37 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
 import java.util.Queue;
-import java.util.Stack;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 二分搜索树
+ * 所有操作均为非递归实现，树退化成链表时也不会栈溢出
+ * 有序输入请使用fromSorted批量构建，逐个add会退化成链表
+ * 支持四种顺序的迭代器，以及可按子树拆分的Spliterator（stream / parallelStream）
  */
-public class BinarySearchTree<E extends Comparable<E>> {
+public class BinarySearchTree<E extends Comparable<E>> implements Iterable<E> {
 
     private class Node {
 
         private E val;
         private Node left;
         private Node right;
+        // 以该节点为根的子树的节点数，用于rank/select
+        private int size;
 
         public Node(E val) {
             this.val = val;
             this.left = null;
             this.right = null;
+            this.size = 1;
         }
 
         public Node() {
@@ -24,16 +39,216 @@ public class BinarySearchTree<E extends Comparable<E>> {
         }
     }
 
+    /**
+     * 从迭代器批量构建时缓冲区的初始容量
+     */
+    private static final int DEFAULT_BUFFER_CAPACITY = 16;
+    /**
+     * 记录下降路径的数组的初始容量，树更高时按需扩容
+     */
+    private static final int DEFAULT_PATH_CAPACITY = 32;
+
     // 根节点
     private Node root;
     // 节点数
     private int size;
+    // add/remove下降时经过的节点，确认插入/删除成功后再修改它们的子树大小，用完即清空
+    private Object[] path = new Object[DEFAULT_PATH_CAPACITY];
 
     public BinarySearchTree() {
         this.root = null;
         this.size = 0;
     }
 
+    /**
+     * 根据有序数组构建一棵完全平衡的二分搜索树，时间复杂度O(n)
+     * 相邻的重复元素只保留一个
+     *
+     * @param sorted 从小到大排列的元素
+     * @return
+     */
+    public static <E extends Comparable<E>> BinarySearchTree<E> fromSorted(E[] sorted) {
+        if (sorted == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        return fromSorted(Arrays.asList(sorted).iterator(), sorted.length);
+    }
+
+    /**
+     * 根据有序迭代器构建一棵完全平衡的二分搜索树，时间复杂度O(n)
+     * 相邻的重复元素只保留一个
+     *
+     * @param sorted 按从小到大顺序返回元素的迭代器
+     * @return
+     */
+    public static <E extends Comparable<E>> BinarySearchTree<E> fromSorted(Iterator<E> sorted) {
+        if (sorted == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        return fromSorted(sorted, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    private static <E extends Comparable<E>> BinarySearchTree<E> fromSorted(Iterator<E> sorted, int capacity) {
+        Object[] buffer = new Object[Math.max(capacity, 1)];
+        int n = 0;
+        while (sorted.hasNext()) {
+            E val = sorted.next();
+            if (val == null) {
+                throw new IllegalArgumentException("illegal argument: null ");
+            }
+            if (n > 0) {
+                int cmp = val.compareTo((E) buffer[n - 1]);
+                if (cmp < 0) {
+                    throw new IllegalArgumentException("input is not sorted: " + buffer[n - 1] + " before " + val);
+                }
+                if (cmp == 0) {
+                    continue;
+                }
+            }
+            if (n == buffer.length) {
+                buffer = Arrays.copyOf(buffer, n * 2);
+            }
+            buffer[n++] = val;
+        }
+        return build(buffer, n);
+    }
+
+    /**
+     * 并集，对两棵树做中序归并，时间复杂度O(m + n)
+     *
+     * @param other
+     * @return 新的平衡二分搜索树，不修改原来的两棵树
+     */
+    public BinarySearchTree<E> union(BinarySearchTree<E> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        Object[] buffer = new Object[size + other.size];
+        int n = 0;
+        Iterator<E> it1 = inorderIterator();
+        Iterator<E> it2 = other.inorderIterator();
+        E v1 = it1.hasNext() ? it1.next() : null;
+        E v2 = it2.hasNext() ? it2.next() : null;
+        while (v1 != null && v2 != null) {
+            int cmp = v1.compareTo(v2);
+            if (cmp <= 0) {
+                buffer[n++] = v1;
+                v1 = it1.hasNext() ? it1.next() : null;
+                if (cmp == 0) {
+                    v2 = it2.hasNext() ? it2.next() : null;
+                }
+            } else {
+                buffer[n++] = v2;
+                v2 = it2.hasNext() ? it2.next() : null;
+            }
+        }
+        for (; v1 != null; v1 = it1.hasNext() ? it1.next() : null) {
+            buffer[n++] = v1;
+        }
+        for (; v2 != null; v2 = it2.hasNext() ? it2.next() : null) {
+            buffer[n++] = v2;
+        }
+        return build(buffer, n);
+    }
+
+    /**
+     * 交集，对两棵树做中序归并，时间复杂度O(m + n)
+     *
+     * @param other
+     * @return 新的平衡二分搜索树，不修改原来的两棵树
+     */
+    public BinarySearchTree<E> intersect(BinarySearchTree<E> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        Object[] buffer = new Object[Math.min(size, other.size)];
+        int n = 0;
+        Iterator<E> it1 = inorderIterator();
+        Iterator<E> it2 = other.inorderIterator();
+        E v1 = it1.hasNext() ? it1.next() : null;
+        E v2 = it2.hasNext() ? it2.next() : null;
+        while (v1 != null && v2 != null) {
+            int cmp = v1.compareTo(v2);
+            if (cmp == 0) {
+                buffer[n++] = v1;
+            }
+            if (cmp <= 0) {
+                v1 = it1.hasNext() ? it1.next() : null;
+            }
+            if (cmp >= 0) {
+                v2 = it2.hasNext() ? it2.next() : null;
+            }
+        }
+        return build(buffer, n);
+    }
+
+    /**
+     * 用sorted[0, n)构建完全平衡的二分搜索树
+     *
+     * @param sorted 严格递增的元素
+     * @param n
+     * @return
+     */
+    private static <E extends Comparable<E>> BinarySearchTree<E> build(Object[] sorted, int n) {
+        BinarySearchTree<E> tree = new BinarySearchTree<>();
+        tree.root = tree.buildBalanced(sorted, n);
+        tree.size = n;
+        return tree;
+    }
+
+    /**
+     * 每次取区间中点作为子树的根（非递归实现，用栈保存待构建的区间）
+     *
+     * @param sorted
+     * @param n
+     * @return 根节点
+     */
+    private Node buildBalanced(Object[] sorted, int n) {
+        if (n == 0) {
+            return null;
+        }
+        Deque<BuildTask> stack = new ArrayDeque<>();
+        Node result = null;
+        stack.push(new BuildTask(0, n - 1, null, false));
+        while (!stack.isEmpty()) {
+            BuildTask task = stack.pop();
+            int mid = (task.lo + task.hi) >>> 1;
+            Node node = new Node((E) sorted[mid]);
+            node.size = task.hi - task.lo + 1;
+            if (task.parent == null) {
+                result = node;
+            } else if (task.left) {
+                task.parent.left = node;
+            } else {
+                task.parent.right = node;
+            }
+            if (mid < task.hi) {
+                stack.push(new BuildTask(mid + 1, task.hi, node, false));
+            }
+            if (task.lo < mid) {
+                stack.push(new BuildTask(task.lo, mid - 1, node, true));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 待构建的区间[lo, hi]，构建出的子树挂在parent的左边（left为true）或右边
+     */
+    private class BuildTask {
+        private final int lo;
+        private final int hi;
+        private final Node parent;
+        private final boolean left;
+
+        BuildTask(int lo, int hi, Node parent, boolean left) {
+            this.lo = lo;
+            this.hi = hi;
+            this.parent = parent;
+            this.left = left;
+        }
+    }
+
     public boolean isEmpty() {
         return size == 0;
     }
@@ -43,205 +258,499 @@ public class BinarySearchTree<E extends Comparable<E>> {
     }
 
     /**
-     * 新增节点
+     * 树的高度，空树为0
+     * 按层遍历计算，树退化成链表时也不会栈溢出
      *
-     * @param val
+     * @return
      */
-//    public void add(E val) {
-//        if (val == null) {
-//            throw new IllegalArgumentException("illegal argument: null ");
-//        }
-//
-//        if (root == null) {
-//            size++;
-//            root = new Node(val);
-//        } else {
-//            add(root, val);
-//        }
-//    }
-
-    /**
-     * 新增节点的递归方法
+    public int height() {
+        if (root == null) {
+            return 0;
+        }
+        int height = 0;
+        Queue<Node> queue = new LinkedList<>();
+        queue.offer(root);
+        while (!queue.isEmpty()) {
+            height++;
+            for (int i = queue.size(); i > 0; i--) {
+                Node curr = queue.poll();
+                if (curr.left != null) {
+                    queue.offer(curr.left);
+                }
+                if (curr.right != null) {
+                    queue.offer(curr.right);
+                }
+            }
+        }
+        return height;
+    }
+
+    private int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * 新增节点（非递归实现）
+     * 每层只比较一次，下降时记录沿途节点，插入成功后再累加它们的子树大小
      *
-     * @param node
-     * @param val
-     */
-//    private void add(Node node, E val) {
-//        if (node == null) {
-//            return;
-//        }
-//        if (val.compareTo(node.val) < 0 && node.left == null) {
-//            node.left = new Node(val);
-//            size++;
-//            return;
-//        }
-//        if (val.compareTo(node.val) > 0 && node.right == null) {
-//            node.right = new Node(val);
-//            size++;
-//            return;
-//        }
-//        if (val.compareTo(node.val) < 0) {
-//            add(node.left, val);
-//        } else if (val.compareTo(node.val) > 0) {
-//            add(node.right, val);
-//        }
-//    }
-
-    /**
-     * 新增节点
      * @param val
      */
     public void add(E val) {
         if (val == null) {
             throw new IllegalArgumentException("illegal argument: null ");
         }
-        root = add(root, val);
+        if (root == null) {
+            root = new Node(val);
+            size++;
+            return;
+        }
+        Node curr = root;
+        int depth = 0;
+        while (true) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp == 0) {
+                // 元素已存在，沿途节点的子树大小不变
+                adjustPath(depth, 0);
+                return;
+            }
+            pushPath(depth++, curr);
+            Node next = cmp < 0 ? curr.left : curr.right;
+            if (next == null) {
+                if (cmp < 0) {
+                    curr.left = new Node(val);
+                } else {
+                    curr.right = new Node(val);
+                }
+                adjustPath(depth, 1);
+                size++;
+                return;
+            }
+            curr = next;
+        }
     }
 
     /**
-     * 向以node为根节点的子树中插入元素
-     * 并且返回插入成功后的子树的根节点
+     * 记录下降路径上第depth个节点，路径比数组长时扩容
+     *
+     * @param depth
      * @param node
-     * @param val
-     * @return
      */
-    private Node add(Node node, E val) {
-        if (node == null) {
-            node = new Node(val);
-            return node;
+    private void pushPath(int depth, Node node) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
         }
-        if (val.compareTo(node.val) < 0) {
-            node.left = add(node.left, val);
-        } else if (val.compareTo(node.val) > 0){
-            node.right = add(node.right, val);
-        }
-        return node;
+        path[depth] = node;
     }
 
     /**
-     * 二分搜索树中是否包含某个节点
+     * 把记录的前depth个节点的子树大小加上delta，并清空记录，避免引用已删除的节点
      *
-     * @param val
-     * @return
+     * @param depth
+     * @param delta
      */
-    public boolean contains(E val) {
-        if (val == null) {
-            throw new IllegalArgumentException("illegal argument: null ");
+    private void adjustPath(int depth, int delta) {
+        for (int i = 0; i < depth; i++) {
+            ((Node) path[i]).size += delta;
+            path[i] = null;
         }
-        return contains(root, val);
     }
 
     /**
-     * 查询以node为根节点的二分搜索树中是否包含某个节点，并返回
+     * 二分搜索树中是否包含某个节点（非递归实现）
      *
-     * @param node
      * @param val
      * @return
      */
-    private boolean contains(Node node, E val) {
-        if (node == null) {
-            return false;
+    public boolean contains(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
         }
-        if (val.compareTo(node.val) == 0) {
-            return true;
-        } else if (val.compareTo(node.val) < 0) {
-            return contains(node.left, val);
-        } else {
-            return contains(node.right, val);
+        Node curr = root;
+        while (curr != null) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp == 0) {
+                return true;
+            }
+            curr = cmp < 0 ? curr.left : curr.right;
         }
+        return false;
     }
 
     /**
-     * 前序遍历（递归实现）
+     * 前序遍历
      */
     public void preorder() {
-        preorder(root);
+        preorderIterator().forEachRemaining(val -> System.out.print(val + " "));
     }
 
-    private void preorder(Node node) {
-        if (node == null) {
+    /**
+     * 前序遍历
+     * 深度优先遍历
+     */
+    public void dfs() {
+        if (root == null) {
+            System.out.println("tree is empty");
             return;
         }
-        System.out.print(node.val + " ");
-        preorder(node.left);
-        preorder(node.right);
+        preorder();
     }
 
     /**
-     * 前序遍历（非递归实现）
-     * 深度优先遍历
+     * 广度优先遍历
      */
-    public void dfs() {
+    public void bfs() {
         if (root == null) {
             System.out.println("tree is empty");
             return;
         }
-        Stack<Node> stack = new Stack<>();
-        stack.push(root);
-        while (!stack.isEmpty()) {
+        levelOrderIterator().forEachRemaining(val -> System.out.print(val + " "));
+    }
+
+    /**
+     * 中序遍历
+     */
+    public void inorder() {
+        inorderIterator().forEachRemaining(val -> System.out.print(val + " "));
+    }
+
+    /**
+     * 后序遍历
+     */
+    public void postorder() {
+        postorderIterator().forEachRemaining(val -> System.out.print(val + " "));
+    }
+
+    /**
+     * 默认按中序（从小到大）遍历
+     *
+     * @return
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return inorderIterator();
+    }
+
+    public Iterator<E> preorderIterator() {
+        return new PreorderIterator();
+    }
+
+    public Iterator<E> inorderIterator() {
+        return new InorderIterator();
+    }
+
+    public Iterator<E> postorderIterator() {
+        return new PostorderIterator();
+    }
+
+    public Iterator<E> levelOrderIterator() {
+        return new LevelOrderIterator();
+    }
+
+    /**
+     * 按中序遍历的Spliterator，以子树为单位拆分，拆分后的大小仍然精确
+     *
+     * @return
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new TreeSpliterator(root);
+    }
+
+    /**
+     * 按从小到大的顺序生成流
+     *
+     * @return
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * 并行流，各个子树由不同的线程处理
+     *
+     * @return
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * 前序遍历迭代器
+     * 栈顶即下一个要访问的节点，访问后先压右孩子再压左孩子
+     */
+    private class PreorderIterator implements Iterator<E> {
+
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        PreorderIterator() {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
             Node curr = stack.pop();
-            System.out.print(curr.val + " ");
             if (curr.right != null) {
                 stack.push(curr.right);
             }
             if (curr.left != null) {
                 stack.push(curr.left);
             }
+            return curr.val;
         }
     }
 
     /**
-     * 广度优先遍历
+     * 中序遍历迭代器
+     * 栈中保存左链，弹出节点后再把其右子树的左链压栈
      */
-    public void bfs() {
-        if (root == null) {
-            System.out.println("tree is empty");
-            return;
+    private class InorderIterator implements Iterator<E> {
+
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        InorderIterator() {
+            pushLeft(root);
         }
-        Queue<Node> queue = new LinkedList<>();
-        queue.offer(root);
-        while (!queue.isEmpty()) {
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node curr = stack.pop();
+            pushLeft(curr.right);
+            return curr.val;
+        }
+    }
+
+    /**
+     * 后序遍历迭代器
+     * 栈顶节点的右子树为空或者刚刚访问过时，才访问栈顶节点
+     */
+    private class PostorderIterator implements Iterator<E> {
+
+        private final Deque<Node> stack = new ArrayDeque<>();
+        // 上一个访问的节点
+        private Node last;
+
+        PostorderIterator() {
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node top = stack.peek();
+            while (top.right != null && top.right != last) {
+                pushLeft(top.right);
+                top = stack.peek();
+            }
+            stack.pop();
+            last = top;
+            return top.val;
+        }
+    }
+
+    /**
+     * 层序遍历（广度优先）迭代器
+     */
+    private class LevelOrderIterator implements Iterator<E> {
+
+        private final Queue<Node> queue = new ArrayDeque<>();
+
+        LevelOrderIterator() {
+            if (root != null) {
+                queue.offer(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (queue.isEmpty()) {
+                throw new NoSuchElementException();
+            }
             Node curr = queue.poll();
-            System.out.print(curr.val + " ");
             if (curr.left != null) {
                 queue.offer(curr.left);
             }
             if (curr.right != null) {
                 queue.offer(curr.right);
             }
+            return curr.val;
         }
     }
 
     /**
-     * 中序遍历（递归实现）
+     * 中序遍历的Spliterator
+     * 剩余元素由若干个片段按顺序组成，片段是一棵完整的子树或者单个节点，
+     * 拆分时把前一半片段交给新的Spliterator；只剩一棵子树时先把它展开成 左子树、根、右子树
      */
-    public void inorder() {
-        inorder(root);
-    }
+    private class TreeSpliterator implements Spliterator<E> {
 
-    private void inorder(Node node) {
-        if (node == null) {
-            return;
+        /**
+         * 片段：whole为true表示以node为根的整棵子树，否则只表示node本身
+         */
+        private class Part {
+            private final Node node;
+            private final boolean whole;
+
+            Part(Node node, boolean whole) {
+                this.node = node;
+                this.whole = whole;
+            }
         }
-        inorder(node.left);
-        System.out.print(node.val + " ");
-        inorder(node.right);
-    }
 
-    /**
-     * 后序遍历（递归实现）
-     */
-    public void postorder() {
-        postorder(root);
-    }
+        private final Deque<Part> parts;
+        // 剩余元素个数，借助子树大小拆分后仍然是精确值
+        private long est;
 
-    private void postorder(Node node) {
-        if (node == null) {
-            return;
+        TreeSpliterator(Node node) {
+            this.parts = new ArrayDeque<>();
+            if (node != null) {
+                parts.add(new Part(node, true));
+            }
+            this.est = size(node);
+        }
+
+        private TreeSpliterator(Deque<Part> parts, long est) {
+            this.parts = parts;
+            this.est = est;
+        }
+
+        /**
+         * 把队首的整棵子树展开成 左子树、根、右子树 三个片段
+         */
+        private void expandFirst() {
+            Part first = parts.pollFirst();
+            Node node = first.node;
+            if (node.right != null) {
+                parts.addFirst(new Part(node.right, true));
+            }
+            parts.addFirst(new Part(node, false));
+            if (node.left != null) {
+                parts.addFirst(new Part(node.left, true));
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            while (!parts.isEmpty() && parts.peekFirst().whole) {
+                expandFirst();
+            }
+            if (parts.isEmpty()) {
+                return false;
+            }
+            action.accept(parts.pollFirst().node.val);
+            est--;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            Deque<Node> stack = new ArrayDeque<>();
+            while (!parts.isEmpty()) {
+                Part part = parts.pollFirst();
+                if (!part.whole) {
+                    action.accept(part.node.val);
+                    continue;
+                }
+                // 整棵子树直接做非递归中序遍历，不再创建片段
+                Node curr = part.node;
+                while (curr != null || !stack.isEmpty()) {
+                    while (curr != null) {
+                        stack.push(curr);
+                        curr = curr.left;
+                    }
+                    curr = stack.pop();
+                    action.accept(curr.val);
+                    curr = curr.right;
+                }
+            }
+            est = 0;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            if (parts.size() == 1 && parts.peekFirst().whole) {
+                expandFirst();
+            }
+            int n = parts.size();
+            if (n < 2) {
+                return null;
+            }
+            Deque<Part> prefix = new ArrayDeque<>();
+            long prefixSize = 0;
+            for (int i = n / 2; i > 0; i--) {
+                Part part = parts.pollFirst();
+                prefixSize += part.whole ? part.node.size : 1;
+                prefix.addLast(part);
+            }
+            est -= prefixSize;
+            return new TreeSpliterator(prefix, prefixSize);
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<? super E> getComparator() {
+            // 自然顺序
+            return null;
         }
-        postorder(node.left);
-        postorder(node.right);
-        System.out.print(node.val + " ");
     }
 
     /**
@@ -257,98 +766,325 @@ public class BinarySearchTree<E extends Comparable<E>> {
     }
 
     /**
-     * 找到以node为根节点的二分搜索树中最小的节点并返回
+     * 找到以node为根节点的二分搜索树中最小的节点并返回（非递归实现）
      *
      * @param node
      * @return
      */
     private Node min(Node node) {
-        if (node.left == null) {
-            return node;
+        while (node.left != null) {
+            node = node.left;
         }
-        return min(node.left);
+        return node;
     }
 
     /**
-     * 删除二分搜索树最小的节点
+     * 找到二分搜索树中最大的节点
      *
      * @return
      */
+    public E max() {
+        if (root == null) {
+            return null;
+        }
+        Node curr = root;
+        while (curr.right != null) {
+            curr = curr.right;
+        }
+        return curr.val;
+    }
+
+    /**
+     * 删除二分搜索树最小的节点（非递归实现）
+     *
+     * @return 被删除的元素，树为空时返回null
+     */
     public E removeMin() {
-        E result = min();
-        root = removeMin(root);
-        return result;
+        if (root == null) {
+            return null;
+        }
+        Node parent = null;
+        Node curr = root;
+        while (curr.left != null) {
+            curr.size--;
+            parent = curr;
+            curr = curr.left;
+        }
+        // 最小节点没有左子树，用它的右子树替代它
+        if (parent == null) {
+            root = curr.right;
+        } else {
+            parent.left = curr.right;
+        }
+        curr.right = null;
+        size--;
+        return curr.val;
     }
 
     /**
-     * 删除以node为根节点的二分搜索树中的最小节点，并返回删除后的根节点
+     * 删除二分搜索树最大的节点（非递归实现）
      *
-     * @param node
-     * @return
+     * @return 被删除的元素，树为空时返回null
      */
-    private Node removeMin(Node node) {
-        if (node.left == null) {
-            Node right = node.right;
-            node.right = null;
-            size--;
-            return right;
+    public E removeMax() {
+        if (root == null) {
+            return null;
         }
-        node.left = removeMin(node.left);
-        return node;
+        Node parent = null;
+        Node curr = root;
+        while (curr.right != null) {
+            curr.size--;
+            parent = curr;
+            curr = curr.right;
+        }
+        // 最大节点没有右子树，用它的左子树替代它
+        if (parent == null) {
+            root = curr.left;
+        } else {
+            parent.right = curr.left;
+        }
+        curr.left = null;
+        size--;
+        return curr.val;
     }
 
     /**
-     * 删除二分搜索树中指定的元素e
+     * 删除二分搜索树中指定的元素e（非递归实现）
      *
      * @param val
-     * @return
+     * @return 被删除的元素，不存在时返回null
      */
     public E remove(E val) {
-        if (root == null) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        Node parent = null;
+        Node curr = root;
+        int depth = 0;
+        while (curr != null) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp == 0) {
+                break;
+            }
+            pushPath(depth++, parent = curr);
+            curr = cmp < 0 ? curr.left : curr.right;
+        }
+        if (curr == null) {
+            // 元素不存在，沿途节点的子树大小不变
+            adjustPath(depth, 0);
             return null;
         }
-        return remove(root, val).val;
+        adjustPath(depth, -1);
+        E result = curr.val;
+        if (curr.left != null && curr.right != null) {
+            // 既有左子树，又有右子树：用后继节点的值替代当前节点，转而删除后继节点
+            curr.size--;
+            Node successorParent = curr;
+            Node successor = curr.right;
+            while (successor.left != null) {
+                successor.size--;
+                successorParent = successor;
+                successor = successor.left;
+            }
+            curr.val = successor.val;
+            parent = successorParent;
+            curr = successor;
+        }
+        // 此时curr最多只有一个子树（包括叶子节点），用子树替代curr
+        Node child = curr.left != null ? curr.left : curr.right;
+        if (parent == null) {
+            root = child;
+        } else if (parent.left == curr) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+        curr.left = curr.right = null;
+        size--;
+        return result;
     }
 
     /**
-     * 删除以node为根节点的二分搜索树中的指定元素e，并返回删除后的跟节点
+     * 小于等于val的最大元素
+     *
+     * @param val
+     * @return 不存在时返回null
+     */
+    public E floor(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        E result = null;
+        Node curr = root;
+        while (curr != null) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp == 0) {
+                return curr.val;
+            }
+            if (cmp < 0) {
+                curr = curr.left;
+            } else {
+                // 当前节点是候选，继续在右子树中找更大的
+                result = curr.val;
+                curr = curr.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 大于等于val的最小元素
+     *
+     * @param val
+     * @return 不存在时返回null
+     */
+    public E ceiling(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        E result = null;
+        Node curr = root;
+        while (curr != null) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp == 0) {
+                return curr.val;
+            }
+            if (cmp > 0) {
+                curr = curr.right;
+            } else {
+                // 当前节点是候选，继续在左子树中找更小的
+                result = curr.val;
+                curr = curr.left;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 树中小于val的元素个数，val不必存在于树中
      *
-     * @param node
      * @param val
      * @return
      */
-    private Node remove(Node node, E val) {
-        if (node == null) {
-            return null;
+    public int rank(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
         }
-        if (val.compareTo(node.val) < 0) {
-            node.left = remove(node.left, val);
-            return node;
-        } else if (val.compareTo(node.val) > 0) {
-            node.right = remove(node.right, val);
-            return node;
-        } else {
-            if (node.right == null) {
-                // 只有左子树（包括叶子节点）
-                Node left = node.left;
-                node.left = null;
-                size--;
-                return left;
-            } else if (node.left == null) {
-                // 只有右子树
-                Node right = node.right;
-                node.right = null;
-                size--;
-                return right;
+        int rank = 0;
+        Node curr = root;
+        while (curr != null) {
+            int cmp = val.compareTo(curr.val);
+            if (cmp < 0) {
+                curr = curr.left;
+            } else if (cmp > 0) {
+                rank += size(curr.left) + 1;
+                curr = curr.right;
+            } else {
+                return rank + size(curr.left);
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * 第k小的元素，k从0开始，即rank为k的元素
+     *
+     * @param k
+     * @return
+     */
+    public E select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IllegalArgumentException("illegal index, max " + size + " min 0 but index is " + k);
+        }
+        Node curr = root;
+        while (true) {
+            int leftSize = size(curr.left);
+            if (k < leftSize) {
+                curr = curr.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                curr = curr.right;
             } else {
-                // 既有左子树，又有右子树
-                Node curr = min(node.right);
-                curr.right = removeMin(node.right);
-                curr.left = node.left;
-                node.left = node.right = null;
-                return curr;
+                return curr.val;
             }
         }
     }
 
+    /**
+     * [lo, hi]范围内的元素个数，O(log n)
+     *
+     * @param lo
+     * @param hi
+     * @return
+     */
+    public int rangeCount(E lo, E hi) {
+        checkRange(lo, hi);
+        return rank(hi) - rank(lo) + (contains(hi) ? 1 : 0);
+    }
+
+    /**
+     * 按从小到大的顺序遍历[lo, hi]范围内的元素，O(log n + k)
+     *
+     * @param lo
+     * @param hi
+     * @return
+     */
+    public Iterator<E> range(E lo, E hi) {
+        checkRange(lo, hi);
+        return new RangeIterator(lo, hi);
+    }
+
+    private void checkRange(E lo, E hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (lo.compareTo(hi) > 0) {
+            throw new IllegalArgumentException("illegal range, lo " + lo + " is greater than hi " + hi);
+        }
+    }
+
+    /**
+     * 范围迭代器
+     * 和中序遍历迭代器一样保存左链，但跳过小于lo的节点，遇到大于hi的节点就结束
+     */
+    private class RangeIterator implements Iterator<E> {
+
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private final E lo;
+        private final E hi;
+
+        RangeIterator(E lo, E hi) {
+            this.lo = lo;
+            this.hi = hi;
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                if (node.val.compareTo(lo) < 0) {
+                    // 该节点及其左子树都小于lo
+                    node = node.right;
+                } else {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && stack.peek().val.compareTo(hi) <= 0;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node curr = stack.pop();
+            pushLeft(curr.right);
+            return curr.val;
+        }
+    }
+
 }
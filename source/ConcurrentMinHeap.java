@@ -0,0 +1,258 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 可以被多个线程同时访问的最小堆（优先队列），提供和MinHeap相同的add/extractMin接口
+ * 有两种模式：
+ *
+ * 1. 精确模式（默认）：基于LockFreeSkipList，extractMin总是返回当前最小的元素
+ *    跳表不允许重复元素，所以每个元素附带一个递增的序号，值相等时先加入的先出
+ *
+ * 2. 宽松模式（MultiQueue）：内部有多个各自加锁的DaryMinHeap（分片），数量通常是线程数的2倍
+ *    add随机选一个分片加入；extractMin随机选两个分片，从堆顶较小的那个取出（two-choice）
+ *    各线程很少争用同一把锁，吞吐量随线程数增长；代价是extractMin返回的只是“接近最小”的元素，
+ *    适合不要求严格顺序的任务调度
+ */
+public class ConcurrentMinHeap<E extends Comparable<E>> {
+
+    /**
+     * 精确模式下的元素：值相等时按序号比较
+     */
+    private static final class Entry<E extends Comparable<E>> implements Comparable<Entry<E>> {
+
+        private final E val;
+        private final long seq;
+
+        private Entry(E val, long seq) {
+            this.val = val;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Entry<E> other) {
+            int cmp = val.compareTo(other.val);
+            return cmp != 0 ? cmp : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * 宽松模式下的分片，继承ReentrantLock省去一次间接引用
+     */
+    private static final class Shard<E extends Comparable<E>> extends ReentrantLock {
+
+        // ReentrantLock实现了Serializable，分片本身不会被序列化
+        private static final long serialVersionUID = 1L;
+
+        private final DaryMinHeap<E> heap = new DaryMinHeap<>();
+        // 堆顶元素，不加锁也可以读，用于two-choice比较；为null表示分片为空
+        private volatile E top;
+        // 堆中元素个数，和top一样在持有锁时更新，不加锁也可以读
+        private volatile int size;
+    }
+
+    // 精确模式使用
+    private final LockFreeSkipList<Entry<E>> skipList;
+    private final AtomicLong sequence;
+    // 宽松模式使用
+    private final Shard<E>[] shards;
+
+    /**
+     * 精确模式
+     */
+    public ConcurrentMinHeap() {
+        this(false);
+    }
+
+    /**
+     * @param relaxed 是否使用宽松模式，宽松模式的分片数为CPU核数的2倍
+     */
+    public ConcurrentMinHeap(boolean relaxed) {
+        this(relaxed, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * 宽松模式，指定分片数
+     *
+     * @param shardCount 分片数，至少为2
+     */
+    public ConcurrentMinHeap(int shardCount) {
+        this(true, shardCount);
+    }
+
+    private ConcurrentMinHeap(boolean relaxed, int shardCount) {
+        if (relaxed) {
+            if (shardCount < 2) {
+                throw new IllegalArgumentException("illegal shardCount, must be at least 2 but is " + shardCount);
+            }
+            skipList = null;
+            sequence = null;
+            shards = (Shard<E>[]) new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard<>();
+            }
+        } else {
+            skipList = new LockFreeSkipList<>();
+            sequence = new AtomicLong();
+            shards = null;
+        }
+    }
+
+    /**
+     * 是否是宽松模式
+     *
+     * @return
+     */
+    public boolean isRelaxed() {
+        return shards != null;
+    }
+
+    /**
+     * 元素个数，存在并发修改时不保证精确
+     * 宽松模式下累加各分片的volatile计数，不读取分片内的堆，也不加锁
+     *
+     * @return
+     */
+    public int size() {
+        if (shards == null) {
+            return skipList.size();
+        }
+        int size = 0;
+        for (Shard<E> shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * 是否为空，存在并发修改时只是某一时刻的快照
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        if (shards == null) {
+            return skipList.isEmpty();
+        }
+        for (Shard<E> shard : shards) {
+            if (shard.top != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param e
+     */
+    public void add(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (shards == null) {
+            skipList.add(new Entry<>(e, sequence.getAndIncrement()));
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            // 锁被占用就换一个分片，不在锁上排队
+            Shard<E> shard = shards[random.nextInt(shards.length)];
+            if (shard.tryLock()) {
+                try {
+                    shard.heap.add(e);
+                    shard.top = shard.heap.min();
+                    shard.size = shard.heap.size();
+                } finally {
+                    shard.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 查看最小的元素，宽松模式下是所有分片堆顶中最小的一个
+     *
+     * @return 为空时返回null
+     */
+    public E min() {
+        if (shards == null) {
+            Entry<E> entry = skipList.min();
+            return entry == null ? null : entry.val;
+        }
+        E result = null;
+        for (Shard<E> shard : shards) {
+            E top = shard.top;
+            if (top != null && (result == null || top.compareTo(result) < 0)) {
+                result = top;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 移除，并返回最小的元素
+     * 宽松模式下返回的是随机两个分片中较小的堆顶，不保证是全局最小
+     *
+     * @return 为空时返回null
+     */
+    public E extractMin() {
+        if (shards == null) {
+            Entry<E> entry = skipList.removeMin();
+            return entry == null ? null : entry.val;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard<E> first = shards[random.nextInt(shards.length)];
+            Shard<E> second = shards[random.nextInt(shards.length)];
+            E firstTop = first.top;
+            E secondTop = second.top;
+            Shard<E> shard;
+            if (firstTop == null && secondTop == null) {
+                // 两个分片都是空的，检查是不是所有分片都空了
+                shard = nonEmptyShard();
+                if (shard == null) {
+                    return null;
+                }
+            } else if (secondTop == null || (firstTop != null && firstTop.compareTo(secondTop) <= 0)) {
+                shard = first;
+            } else {
+                shard = second;
+            }
+            if (shard.tryLock()) {
+                try {
+                    // 加锁前可能已被其他线程取空
+                    if (!shard.heap.isEmpty()) {
+                        E result = shard.heap.extractMin();
+                        shard.top = shard.heap.min();
+                        shard.size = shard.heap.size();
+                        return result;
+                    }
+                } finally {
+                    shard.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * 顺序扫描，找到任意一个非空的分片
+     *
+     * @return 全部为空时返回null
+     */
+    private Shard<E> nonEmptyShard() {
+        for (Shard<E> shard : shards) {
+            if (shard.top != null) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "{ relaxed: " + isRelaxed() + ", size: " + size() + ", min: " + min() + " }";
+    }
+
+}
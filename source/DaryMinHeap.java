@@ -0,0 +1,198 @@
+import java.util.Arrays;
+
+/**
+ * d叉最小堆
+ * 每个节点有d（2、4或8）个子节点，直接在数组上操作，从数组第0个索引开始存储元素
+ *
+ * 和MinHeap相比：
+ * 1. 不经过ArrayList.get/swap，省去每一步的范围检查
+ * 2. 上浮/下沉时不做交换，而是把待调整的元素拿出来形成一个“空位”，
+ *    沿路径把父/子节点移进空位，最后再把元素放到空位上，每层只写一次数组
+ * 3. d越大树越矮，上浮越快；下沉时每层要比较d个子节点，但它们在数组中是连续的，
+ *    通常落在同一个缓存行内，extractMin较多的场景下4叉堆往往比2叉堆快
+ */
+public class DaryMinHeap<E extends Comparable<E>> {
+
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * 默认4叉
+     */
+    private static final int DEFAULT_ARITY = 4;
+
+    private E[] table;
+    private int size;
+    // log2(d)，用移位代替乘除法
+    private final int shift;
+
+    public DaryMinHeap() {
+        this(DEFAULT_ARITY, DEFAULT_CAPACITY);
+    }
+
+    public DaryMinHeap(int arity) {
+        this(arity, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param arity 每个节点的子节点数，只能是2、4、8
+     * @param initCapacity 初始容量
+     */
+    public DaryMinHeap(int arity, int initCapacity) {
+        if (arity != 2 && arity != 4 && arity != 8) {
+            throw new IllegalArgumentException("illegal arity, must be 2, 4 or 8 but is " + arity);
+        }
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.table = (E[]) new Comparable[Math.max(initCapacity, 1)];
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 每个节点的子节点数
+     *
+     * @return
+     */
+    public int arity() {
+        return 1 << shift;
+    }
+
+    /**
+     * 根据子节点找到父节点，调用方保证child > 0
+     *
+     * @param child
+     * @return
+     */
+    private int parent(int child) {
+        return (child - 1) >> shift;
+    }
+
+    /**
+     * 根据父节点找到第一个子节点，其余子节点紧随其后
+     *
+     * @param parent
+     * @return
+     */
+    private int firstChild(int parent) {
+        return (parent << shift) + 1;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param e
+     */
+    public void add(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (size == table.length) {
+            table = Arrays.copyOf(table, table.length << 1);
+        }
+        siftUp(size++, e);
+    }
+
+    /**
+     * 从index处的空位开始，把比e大的父节点依次下移，直到找到e的位置
+     *
+     * @param index 空位
+     * @param e 待放入的元素
+     */
+    private void siftUp(int index, E e) {
+        E[] table = this.table;
+        while (index > 0) {
+            int p = parent(index);
+            E parent = table[p];
+            if (e.compareTo(parent) >= 0) {
+                break;
+            }
+            table[index] = parent;
+            index = p;
+        }
+        table[index] = e;
+    }
+
+    /**
+     * 查看堆中的最小元素
+     *
+     * @return 堆为空时返回null
+     */
+    public E min() {
+        return size == 0 ? null : table[0];
+    }
+
+    /**
+     * 移除，并返回最小的元素
+     *
+     * @return 堆为空时返回null
+     */
+    public E extractMin() {
+        if (size == 0) {
+            return null;
+        }
+        E result = table[0];
+        int last = --size;
+        E e = table[last];
+        table[last] = null;
+        if (last > 0) {
+            // 最后一个元素从堆顶的空位开始下沉
+            siftDown(0, e);
+        }
+        return result;
+    }
+
+    /**
+     * 从index处的空位开始，把最小的子节点依次上移，直到找到e的位置
+     *
+     * @param index 空位
+     * @param e 待放入的元素
+     */
+    private void siftDown(int index, E e) {
+        E[] table = this.table;
+        int size = this.size;
+        int child;
+        while ((child = firstChild(index)) < size) {
+            // 在连续的d个子节点中找最小的
+            int end = Math.min(child + (1 << shift), size);
+            E min = table[child];
+            for (int i = child + 1; i < end; i++) {
+                if (table[i].compareTo(min) < 0) {
+                    min = table[i];
+                    child = i;
+                }
+            }
+            if (e.compareTo(min) <= 0) {
+                break;
+            }
+            table[index] = min;
+            index = child;
+        }
+        table[index] = e;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ arity: " + arity() + ", size: " + size + ", item: [");
+        for (int i = 0; i < size; i++) {
+            result.append(table[i]);
+            if (i != size - 1) {
+                result.append(", ");
+            }
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * 动态数组的扩容/缩容策略
+ * 可以继承并重写grow、shrink方法实现自定义策略
+ */
+public class GrowthPolicy {
+
+    /**
+     * 数组最大长度，部分虚拟机会在数组中保留头信息
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * 默认策略：2倍扩容，元素个数不超过容量的1/4时缩容一半，最小容量10
+     */
+    public static final GrowthPolicy DEFAULT = new GrowthPolicy(2.0, 10, 4, true);
+
+    /**
+     * 只扩容不缩容，适合容量频繁在某个边界附近来回波动的场景
+     */
+    public static final GrowthPolicy NO_SHRINK = new GrowthPolicy(2.0, 10, 4, false);
+
+    // 扩容倍数
+    private final double growFactor;
+    // 扩容/缩容后的最小容量
+    private final int minCapacity;
+    // 元素个数不超过 容量 / shrinkDivisor 时才缩容
+    private final int shrinkDivisor;
+    // 是否允许缩容
+    private final boolean shrinkEnabled;
+
+    /**
+     * @param growFactor 扩容倍数，必须大于1
+     * @param minCapacity 最小容量，必须大于0
+     * @param shrinkDivisor 缩容阈值的除数，必须大于growFactor，
+     *                      否则缩容后的数组是满的，再新增一个元素又会立刻扩容
+     * @param shrinkEnabled 是否允许缩容
+     */
+    public GrowthPolicy(double growFactor, int minCapacity, int shrinkDivisor, boolean shrinkEnabled) {
+        if (!(growFactor > 1.0)) {
+            throw new IllegalArgumentException("illegal growFactor, must be greater than 1 but is " + growFactor);
+        }
+        if (minCapacity <= 0) {
+            throw new IllegalArgumentException("illegal minCapacity, must be positive but is " + minCapacity);
+        }
+        if (shrinkEnabled && shrinkDivisor <= growFactor) {
+            throw new IllegalArgumentException("illegal shrinkDivisor, must be greater than growFactor "
+                    + growFactor + " but is " + shrinkDivisor);
+        }
+        this.growFactor = growFactor;
+        this.minCapacity = minCapacity;
+        this.shrinkDivisor = shrinkDivisor;
+        this.shrinkEnabled = shrinkEnabled;
+    }
+
+    /**
+     * 计算扩容后的容量
+     *
+     * @param capacity 当前容量
+     * @param required 至少需要的容量
+     * @return 新容量，不小于required
+     */
+    public int grow(int capacity, int required) {
+        if (required > MAX_ARRAY_LENGTH) {
+            throw new OutOfMemoryError("required capacity " + required + " exceeds max array length");
+        }
+        long grown = (long) (capacity * growFactor);
+        int newCapacity = (int) Math.min(grown, MAX_ARRAY_LENGTH);
+        return Math.max(Math.max(newCapacity, required), minCapacity);
+    }
+
+    /**
+     * 计算缩容后的容量
+     *
+     * @param capacity 当前容量
+     * @param size 当前元素个数
+     * @return 新容量，等于capacity表示不需要缩容
+     */
+    public int shrink(int capacity, int size) {
+        if (!shrinkEnabled || size > capacity / shrinkDivisor) {
+            return capacity;
+        }
+        int newCapacity = Math.max(Math.max((int) (capacity / growFactor), size), minCapacity);
+        return Math.min(newCapacity, capacity);
+    }
+
+    public double getGrowFactor() {
+        return growFactor;
+    }
+
+    public int getMinCapacity() {
+        return minCapacity;
+    }
+
+    public int getShrinkDivisor() {
+        return shrinkDivisor;
+    }
+
+    public boolean isShrinkEnabled() {
+        return shrinkEnabled;
+    }
+
+    @Override
+    public String toString() {
+        return "{ growFactor: " + growFactor + ", minCapacity: " + minCapacity
+                + ", shrinkDivisor: " + shrinkDivisor + ", shrinkEnabled: " + shrinkEnabled + " }";
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * 支持修改优先级的最小堆（索引堆）
+ * 结构和MinHeap相同，区别在于堆中存放的是句柄（Handle），每个句柄记录自己在数组中的位置
+ * add返回句柄，之后可以通过句柄在O(log n)时间内修改优先级或者删除元素，在O(1)时间内判断是否还在堆中
+ * 不需要为了修改优先级而把元素全部取出再重新加入
+ */
+public class IndexedMinHeap<E extends Comparable<E>> {
+
+    /**
+     * 元素句柄，由add返回
+     * 元素被移出堆（extractMin或者remove）之后，句柄失效
+     */
+    public static final class Handle<E extends Comparable<E>> implements Comparable<Handle<E>> {
+
+        private E val;
+        // 在堆数组中的下标，-1表示已经不在堆中
+        private int index;
+        // 所属的堆，防止把其他堆的句柄传进来
+        private final Object owner;
+
+        private Handle(E val, int index, Object owner) {
+            this.val = val;
+            this.index = index;
+            this.owner = owner;
+        }
+
+        public E get() {
+            return val;
+        }
+
+        @Override
+        public int compareTo(Handle<E> o) {
+            return val.compareTo(o.val);
+        }
+    }
+
+    /**
+     * 存放句柄的MinHeap，上浮、下沉和删除都复用MinHeap的实现，
+     * 只覆盖swap，在句柄移动时同步更新它记录的下标
+     */
+    private static final class HandleHeap<E extends Comparable<E>> extends MinHeap<Handle<E>> {
+
+        HandleHeap(int initCapacity) {
+            super(initCapacity);
+        }
+
+        HandleHeap() {
+            super();
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            super.swap(i, j);
+            get(i).index = i;
+            get(j).index = j;
+        }
+    }
+
+    private final HandleHeap<E> heap;
+
+    public IndexedMinHeap(int initCapacity) {
+        heap = new HandleHeap<>(initCapacity);
+    }
+
+    public IndexedMinHeap() {
+        heap = new HandleHeap<>();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param e
+     * @return 元素的句柄，用于之后修改优先级或者删除
+     */
+    public Handle<E> add(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        Handle<E> handle = new Handle<>(e, size(), this);
+        heap.add(handle);
+        return handle;
+    }
+
+    /**
+     * 句柄是否仍在当前堆中，O(1)
+     *
+     * @param handle
+     * @return
+     */
+    public boolean contains(Handle<E> handle) {
+        return handle != null && handle.owner == this && handle.index >= 0;
+    }
+
+    private void checkHandle(Handle<E> handle) {
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("illegal handle: not in this heap");
+        }
+    }
+
+    /**
+     * 查看堆中的最小元素
+     *
+     * @return 堆为空时返回null
+     */
+    public E min() {
+        return isEmpty() ? null : heap.min().val;
+    }
+
+    /**
+     * 移除，并返回最小的元素
+     *
+     * @return 堆为空时返回null
+     */
+    public E extractMin() {
+        if (isEmpty()) {
+            return null;
+        }
+        return removeAt(0);
+    }
+
+    /**
+     * 删除句柄对应的元素，O(log n)
+     *
+     * @param handle
+     * @return 被删除的元素
+     */
+    public E remove(Handle<E> handle) {
+        checkHandle(handle);
+        return removeAt(handle.index);
+    }
+
+    /**
+     * 删除指定位置的元素，并使它的句柄失效
+     *
+     * @param index
+     * @return
+     */
+    private E removeAt(int index) {
+        Handle<E> removed = heap.removeAt(index);
+        removed.index = -1;
+        return removed.val;
+    }
+
+    /**
+     * 把元素修改为更小的值，只需要上浮
+     *
+     * @param handle
+     * @param e 新的值，不能大于原来的值
+     */
+    public void decreaseKey(Handle<E> handle, E e) {
+        checkHandle(handle);
+        if (e == null || e.compareTo(handle.val) > 0) {
+            throw new IllegalArgumentException("illegal argument: " + e + " is greater than " + handle.val);
+        }
+        handle.val = e;
+        heap.siftUp(handle.index);
+    }
+
+    /**
+     * 把元素修改为更大的值，只需要下沉
+     *
+     * @param handle
+     * @param e 新的值，不能小于原来的值
+     */
+    public void increaseKey(Handle<E> handle, E e) {
+        checkHandle(handle);
+        if (e == null || e.compareTo(handle.val) < 0) {
+            throw new IllegalArgumentException("illegal argument: " + e + " is less than " + handle.val);
+        }
+        handle.val = e;
+        heap.siftDown(handle.index);
+    }
+
+    /**
+     * 修改元素的值，根据新旧值的大小决定上浮还是下沉
+     *
+     * @param handle
+     * @param e
+     */
+    public void update(Handle<E> handle, E e) {
+        checkHandle(handle);
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (e.compareTo(handle.val) < 0) {
+            decreaseKey(handle, e);
+        } else {
+            increaseKey(handle, e);
+        }
+    }
+
+    /**
+     * 原地修改了元素内部决定优先级的字段之后，调用该方法恢复堆的性质
+     *
+     * @param handle
+     */
+    public void changed(Handle<E> handle) {
+        checkHandle(handle);
+        heap.siftDown(handle.index);
+        heap.siftUp(handle.index);
+    }
+
+}
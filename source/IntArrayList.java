@@ -0,0 +1,228 @@
+/**
+ * 动态数组实现ArrayList（int特化版本）
+ * 直接使用int[]存储，避免Integer装箱带来的内存和间接寻址开销
+ */
+public class IntArrayList {
+
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+    /**
+     * 扩容倍数
+     */
+    private static final int RESIZE_RATE = 2;
+
+    private int[] table;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayList(int initCapacity) {
+        table = new int[initCapacity];
+        size = 0;
+    }
+
+    public IntArrayList(int[] arr) {
+        table = new int[arr.length];
+        System.arraycopy(arr, 0, table, 0, arr.length);
+        size = arr.length;
+    }
+
+    /**
+     * 集合是否为空
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取元素个数
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取容量
+     * @return
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * 获取指定位置元素
+     * @param index 指定位置
+     * @return 指定位置元素
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("illegal index, max " + size + " min 0 but index is " + index);
+        }
+        return table[index];
+    }
+
+    /**
+     * 指定位置新增
+     * @param index 下标
+     * @param e 新增元素
+     * @return 是否成功
+     */
+    public boolean add(int index, int e) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("illegal index, max " + table.length + " min 0 but index is " + index);
+        }
+        if (size == table.length) {
+            resize(Math.max(RESIZE_RATE * size, DEFAULT_CAPACITY));
+        }
+        System.arraycopy(table, index, table, index + 1, size - index);
+        table[index] = e;
+        size++;
+        return true;
+    }
+
+    /**
+     * 尾部新增
+     * @param e 新增元素
+     * @return 是否成功
+     */
+    public boolean add(int e) {
+        return add(size, e);
+    }
+
+    /**
+     * 尾部批量新增，最多扩容一次
+     * @param arr 新增的元素
+     * @return 是否成功
+     */
+    public boolean addAll(int[] arr) {
+        if (size + arr.length > table.length) {
+            resize(Math.max(RESIZE_RATE * table.length, size + arr.length));
+        }
+        System.arraycopy(arr, 0, table, size, arr.length);
+        size += arr.length;
+        return true;
+    }
+
+    /**
+     * 删除指定位置的元素
+     * @param index 下标
+     * @return 被删除的元素
+     */
+    public int remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("illegal index, max " + size + " min 0 but index is " + index);
+        }
+        int ret = table[index];
+        System.arraycopy(table, index + 1, table, index, size - index - 1);
+        size--;
+        if ((size == table.length / 4) && (table.length / RESIZE_RATE != 0)) {
+            resize(table.length / RESIZE_RATE);
+        }
+        return ret;
+    }
+
+    /**
+     * 删除尾部元素
+     * @return
+     */
+    public int remove() {
+        return remove(size - 1);
+    }
+
+    /**
+     * 替换指定位置元素
+     * @param index 下标
+     * @param e
+     */
+    public void replace(int index, int e) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("illegal index, max " + size + " min 0 but index is " + index);
+        }
+        table[index] = e;
+    }
+
+    /**
+     * 查找某个元素的下标
+     * @param e 指定元素
+     * @return 该元素的下标 -1 表示不存在该元素
+     */
+    public int indexOf(int e) {
+        for (int i = 0; i < size; i++) {
+            if (table[i] == e) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 是否包含某个元素
+     * @param e 指定元素
+     * @return
+     */
+    public boolean contains(int e) {
+        return indexOf(e) > -1;
+    }
+
+    /**
+     * 清除所有元素
+     * 基本类型数组无需置空，直接重置size即可
+     * @return
+     */
+    public boolean clear() {
+        size = 0;
+        return true;
+    }
+
+    /**
+     * 交换指定位置的元素
+     * @param i
+     * @param j
+     */
+    public void swap(int i, int j) {
+        if (i < 0 || i >= size || j < 0 || j >= size) {
+            throw new IllegalArgumentException("illegal argument");
+        }
+        int temp = table[i];
+        table[i] = table[j];
+        table[j] = temp;
+    }
+
+    /**
+     * 复制出所有元素
+     * @return 长度为size的新数组
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        System.arraycopy(table, 0, result, 0, size);
+        return result;
+    }
+
+    // 扩容
+    private void resize(int newCapacity) {
+        int[] newArray = new int[newCapacity];
+        System.arraycopy(table, 0, newArray, 0, size);
+        table = newArray;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ capacity: " + capacity() + ", size: " + size() + ", item: [");
+        for (int i = 0; i < size; i++) {
+            result.append(table[i]);
+            if (i != size - 1) {
+                result.append(", ");
+            }
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
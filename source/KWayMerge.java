@@ -0,0 +1,122 @@
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 多路归并：把N个各自有序（从小到大）的迭代器合并成一个有序的迭代器
+ * 最小堆里只保存每一路的当前元素，所以内存是O(N)，每输出一个元素O(log N)：
+ * 取出堆顶作为结果，该路还有元素就用下一个元素replaceMin，否则extractMin
+ * 相等的元素按输入的顺序输出（稳定）
+ */
+public class KWayMerge<E extends Comparable<E>> implements Iterator<E> {
+
+    /**
+     * 某一路的当前元素
+     */
+    private static final class Cursor<E extends Comparable<E>> implements Comparable<Cursor<E>> {
+
+        private E head;
+        private final Iterator<? extends E> rest;
+        // 第几路，元素相等时按路的顺序输出
+        private final int way;
+
+        private Cursor(E head, Iterator<? extends E> rest, int way) {
+            this.head = head;
+            this.rest = rest;
+            this.way = way;
+        }
+
+        @Override
+        public int compareTo(Cursor<E> other) {
+            int cmp = head.compareTo(other.head);
+            return cmp != 0 ? cmp : Integer.compare(way, other.way);
+        }
+    }
+
+    private final MinHeap<Cursor<E>> heap;
+
+    public KWayMerge(List<? extends Iterator<? extends E>> iterators) {
+        if (iterators == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        heap = new MinHeap<>(Math.max(iterators.size(), 1));
+        for (int i = 0; i < iterators.size(); i++) {
+            Iterator<? extends E> iterator = iterators.get(i);
+            if (iterator.hasNext()) {
+                heap.add(new Cursor<>(next(iterator), iterator, i));
+            }
+        }
+    }
+
+    private static <E> E next(Iterator<? extends E> iterator) {
+        E e = iterator.next();
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        return e;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public E next() {
+        if (heap.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        Cursor<E> cursor = heap.min();
+        E result = cursor.head;
+        if (cursor.rest.hasNext()) {
+            // 同一个Cursor换上下一个元素后下沉，不用重新创建对象
+            cursor.head = next(cursor.rest);
+            heap.replaceMin(cursor);
+        } else {
+            heap.extractMin();
+        }
+        return result;
+    }
+
+    /**
+     * 以流的形式按顺序输出合并结果，元素是惰性读取的
+     *
+     * @param iterators
+     * @return
+     */
+    public static <E extends Comparable<E>> Stream<E> stream(List<? extends Iterator<? extends E>> iterators) {
+        Spliterator<E> spliterator = Spliterators.spliteratorUnknownSize(new KWayMerge<>(iterators),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * 用于java.util.stream的收集器：把流中的每个有序序列合并成一个有序的List
+     *
+     * @return
+     */
+    public static <E extends Comparable<E>> Collector<Iterable<? extends E>, ?, List<E>> collector() {
+        return Collector.of(
+                java.util.ArrayList<Iterable<? extends E>>::new,
+                java.util.ArrayList::add,
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                },
+                runs -> {
+                    java.util.ArrayList<Iterator<? extends E>> iterators = new java.util.ArrayList<>(runs.size());
+                    for (Iterable<? extends E> run : runs) {
+                        iterators.add(run.iterator());
+                    }
+                    java.util.ArrayList<E> result = new java.util.ArrayList<>();
+                    new KWayMerge<E>(iterators).forEachRemaining(result::add);
+                    return result;
+                });
+    }
+
+}
@@ -19,12 +19,38 @@ public class LinkedList<E> {
         }
     }
 
+    /**
+     * 双向链表的节点，只有双向模式才会创建
+     * 单向模式下每个节点可以少存一个引用
+     */
+    private class DoublyNode extends Node {
+        private Node prev;
+
+        public DoublyNode(E e, Node next) {
+            super(e, next);
+        }
+    }
+
     private int size;
     private Node dummyHead;
+    // 尾节点，链表为空时指向dummyHead
+    private Node tail;
+    // 是否双向链表
+    private final boolean doubly;
 
     public LinkedList() {
+        this(false);
+    }
+
+    /**
+     * @param doubly 是否使用双向链表
+     *               双向链表的removeLast为O(1)，按下标操作时会从离得近的一端开始遍历
+     */
+    public LinkedList(boolean doubly) {
         this.size = 0;
-        dummyHead = new Node();
+        this.doubly = doubly;
+        dummyHead = newNode(null, null);
+        tail = dummyHead;
     }
 
     public int size() {
@@ -35,55 +61,92 @@ public class LinkedList<E> {
         return size == 0;
     }
 
+    public boolean isDoubly() {
+        return doubly;
+    }
+
     public boolean add(int index, E e) {
         if (index < 0 || index > size) {
             throw new IllegalArgumentException("illegal index");
         }
-        Node prev = dummyHead;
-        for (int i = 0; i < index; i++) {
-            prev = prev.next;
-        }
-        Node node = new Node(e);
-        node.next = prev.next;
-        prev.next = node;
-        // 以上行代码等价于这行代码
-        // prev.next = new Node(e, prev.next);
-        size++;
+        linkAfter(node(index - 1), e);
         return true;
     }
 
     public boolean add(E e) {
-        return add(size, e);
+        return addLast(e);
     }
 
     public boolean addFirst(E e) {
-        return add(0, e);
+        linkAfter(dummyHead, e);
+        return true;
     }
 
-    public E remove(int index) {
-        if (index < 0 || index > size) {
+    /**
+     * 尾部新增，借助尾指针，时间复杂度O(1)
+     *
+     * @param e 新增元素
+     * @return
+     */
+    public boolean addLast(E e) {
+        linkAfter(tail, e);
+        return true;
+    }
+
+    public E get(int index) {
+        if (index < 0 || index >= size) {
             throw new IllegalArgumentException("illegal index");
         }
+        return node(index).e;
+    }
+
+    public E getFirst() {
         if (size == 0) {
             throw new IllegalArgumentException("list is empty");
         }
-        Node prev = dummyHead;
-        for (int i = 0; i < index; i++) {
-            prev = prev.next;
+        return dummyHead.next.e;
+    }
+
+    public E getLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("list is empty");
         }
-        Node result = prev.next;
-        prev.next = result.next;
-        result.next = null;
-        size--;
-        return result.e;
+        return tail.e;
+    }
+
+    public E remove(int index) {
+        if (size == 0) {
+            throw new IllegalArgumentException("list is empty");
+        }
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("illegal index");
+        }
+        return unlinkAfter(node(index - 1));
     }
 
     public E removeFirst() {
-        return remove(0);
+        if (size == 0) {
+            throw new IllegalArgumentException("list is empty");
+        }
+        return unlinkAfter(dummyHead);
+    }
+
+    /**
+     * 删除尾部元素
+     * 双向链表直接找到尾节点的前驱，时间复杂度O(1)；单向链表需要从头遍历
+     *
+     * @return
+     */
+    public E removeLast() {
+        if (size == 0) {
+            throw new IllegalArgumentException("list is empty");
+        }
+        Node prev = doubly ? ((DoublyNode) tail).prev : node(size - 2);
+        return unlinkAfter(prev);
     }
 
     public E remove() {
-        return remove(size - 1);
+        return removeLast();
     }
 
     /**
@@ -100,11 +163,8 @@ public class LinkedList<E> {
         while (prev.next != null && !e.equals(prev.next.e)) {
             prev = prev.next;
         }
-        if (prev.next != null && e.equals(prev.next.e)) {
-            Node result = prev.next;
-            prev.next = result.next;
-            result.next = null;
-            size--;
+        if (prev.next != null) {
+            unlinkAfter(prev);
             return true;
         }
         return false;
@@ -114,11 +174,7 @@ public class LinkedList<E> {
         if (index < 0 || index >= size) {
             throw new IllegalArgumentException("illegal index");
         }
-        Node curr = dummyHead.next;
-        for (int i = 0; i < index; i++) {
-            curr = curr.next;
-        }
-        curr.e = e;
+        node(index).e = e;
         return true;
     }
 
@@ -133,6 +189,79 @@ public class LinkedList<E> {
         return false;
     }
 
+    /**
+     * 找到下标为index的节点，index为-1时返回dummyHead
+     * 尾节点直接返回；双向链表从离得近的一端开始遍历
+     *
+     * @param index -1 ~ size - 1
+     * @return
+     */
+    private Node node(int index) {
+        if (index == size - 1) {
+            return tail;
+        }
+        if (doubly && index >= size / 2) {
+            Node curr = tail;
+            for (int i = size - 1; i > index; i--) {
+                curr = ((DoublyNode) curr).prev;
+            }
+            return curr;
+        }
+        Node curr = dummyHead;
+        for (int i = -1; i < index; i++) {
+            curr = curr.next;
+        }
+        return curr;
+    }
+
+    /**
+     * 在prev节点之后插入新节点
+     *
+     * @param prev 前驱节点
+     * @param e 新增元素
+     */
+    private void linkAfter(Node prev, E e) {
+        Node node = newNode(e, prev.next);
+        if (prev.next == null) {
+            tail = node;
+        } else {
+            setPrev(prev.next, node);
+        }
+        setPrev(node, prev);
+        prev.next = node;
+        size++;
+    }
+
+    /**
+     * 删除prev节点的后继节点，并返回被删除的元素
+     *
+     * @param prev 前驱节点
+     * @return
+     */
+    private E unlinkAfter(Node prev) {
+        Node result = prev.next;
+        prev.next = result.next;
+        if (result.next == null) {
+            tail = prev;
+        } else {
+            setPrev(result.next, prev);
+        }
+        result.next = null;
+        setPrev(result, null);
+        size--;
+        return result.e;
+    }
+
+    private Node newNode(E e, Node next) {
+        return doubly ? new DoublyNode(e, next) : new Node(e, next);
+    }
+
+    private void setPrev(Node node, Node prev) {
+        if (doubly) {
+            ((DoublyNode) node).prev = prev;
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
@@ -0,0 +1,347 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁跳表实现的并发有序集合
+ * 提供和BinarySearchTree相同的add/contains/remove/min接口，可以被多个线程同时访问
+ *
+ * 每个节点的每一层后继用AtomicMarkableReference保存，标记位表示该节点在这一层已被逻辑删除：
+ * 1. remove先从上到下标记被删节点的各层后继，标记第0层成功的线程才算删除成功，然后再物理摘除
+ * 2. add先用CAS链入第0层（此时对其他线程可见），再自底向上建立各层索引
+ * 3. add/remove查找时顺便用CAS摘除已标记的节点，CAS失败则从头重试（lock-free）
+ * 4. contains/min只读不写，直接跳过已标记的节点，步数有上限（wait-free）
+ * 5. 记录当前最高层数level，查找从level开始，而不是每次都从MAX_LEVEL开始逐层下降
+ */
+public class LockFreeSkipList<E extends Comparable<E>> {
+
+    /**
+     * 最高层数（从0开始），2^32个元素以内都够用
+     */
+    private static final int MAX_LEVEL = 31;
+
+    /**
+     * 需要创建节点数组，所以定义为静态泛型类
+     */
+    private static class Node<E> {
+
+        private final E val;
+        private final AtomicMarkableReference<Node<E>>[] next;
+        private final int topLevel;
+
+        public Node(E val, int topLevel) {
+            this.val = val;
+            this.next = (AtomicMarkableReference<Node<E>>[]) new AtomicMarkableReference[topLevel + 1];
+            for (int i = 0; i <= topLevel; i++) {
+                next[i] = new AtomicMarkableReference<>(null, false);
+            }
+            this.topLevel = topLevel;
+        }
+    }
+
+    // 头哨兵，小于任何元素
+    private final Node<E> head;
+    // 尾哨兵，大于任何元素
+    private final Node<E> tail;
+    // 元素个数，并发修改时只是近似值
+    private final LongAdder size;
+    // 已使用的最高层数，只增不减：add在链入新节点之前先把它提高到新节点的层数
+    private final AtomicInteger level;
+
+    public LockFreeSkipList() {
+        head = new Node<>(null, MAX_LEVEL);
+        tail = new Node<>(null, MAX_LEVEL);
+        for (int i = 0; i <= MAX_LEVEL; i++) {
+            head.next[i].set(tail, false);
+        }
+        size = new LongAdder();
+        level = new AtomicInteger(0);
+    }
+
+    /**
+     * 元素个数，存在并发修改时不保证精确
+     *
+     * @return
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+
+    public boolean isEmpty() {
+        return min() == null;
+    }
+
+    /**
+     * 比较节点和元素，头尾哨兵分别视为负无穷和正无穷
+     *
+     * @param node
+     * @param val
+     * @return
+     */
+    private int compare(Node<E> node, E val) {
+        if (node == head) {
+            return -1;
+        }
+        if (node == tail) {
+            return 1;
+        }
+        return node.val.compareTo(val);
+    }
+
+    /**
+     * 以1/2的概率逐层升高
+     *
+     * @return 0 ~ MAX_LEVEL
+     */
+    private int randomLevel() {
+        int random = ThreadLocalRandom.current().nextInt();
+        int level = 0;
+        while ((random & 1) != 0 && level < MAX_LEVEL) {
+            level++;
+            random >>>= 1;
+        }
+        return level;
+    }
+
+    /**
+     * 把level提高到至少topLevel
+     *
+     * @param topLevel
+     */
+    private void raiseLevel(int topLevel) {
+        int current;
+        while ((current = level.get()) < topLevel) {
+            if (level.compareAndSet(current, topLevel)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 创建查找用的前驱/后继数组，长度为当前最高层数 + 1
+     *
+     * @return
+     */
+    private Node<E>[] newLevelArray() {
+        return (Node<E>[]) new Node[level.get() + 1];
+    }
+
+    /**
+     * 查找val在每一层的前驱和后继，同时摘除沿途已被标记删除的节点
+     * 从 preds.length - 1 层开始查找，更高的层只是索引，从较低的层开始不影响正确性
+     *
+     * @param val
+     * @param preds 每一层小于val的最后一个节点
+     * @param succs 每一层大于等于val的第一个节点
+     * @return 第0层的后继是否等于val
+     */
+    private boolean find(E val, Node<E>[] preds, Node<E>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<E> pred = head;
+            Node<E> curr = null;
+            for (int level = preds.length - 1; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (true) {
+                    Node<E> succ = curr.next[level].get(marked);
+                    while (marked[0]) {
+                        // curr已被删除，帮忙把它从这一层摘除
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (compare(curr, val) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return compare(curr, val) == 0;
+        }
+    }
+
+    /**
+     * 新增元素
+     *
+     * @param val
+     * @return 元素已存在时返回false
+     */
+    public boolean add(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        int topLevel = randomLevel();
+        // 先提高level，保证查找覆盖新节点的所有层
+        raiseLevel(topLevel);
+        Node<E>[] preds = newLevelArray();
+        Node<E>[] succs = newLevelArray();
+        while (true) {
+            if (find(val, preds, succs)) {
+                return false;
+            }
+            Node<E> node = new Node<>(val, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                node.next[level].set(succs[level], false);
+            }
+            // 链入第0层即视为添加成功
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+                continue;
+            }
+            size.increment();
+            // 自底向上建立索引
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Node<E> succ = succs[level];
+                    Node<E> oldNext = node.next[level].getReference();
+                    if (oldNext != succ && !node.next[level].compareAndSet(oldNext, succ, false, false)) {
+                        // 新节点已经被其他线程标记删除，不再建立索引
+                        return true;
+                    }
+                    if (node.next[level].isMarked()) {
+                        return true;
+                    }
+                    if (preds[level].next[level].compareAndSet(succ, node, false, false)) {
+                        break;
+                    }
+                    find(val, preds, succs);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param val
+     * @return 元素不存在（或者被其他线程抢先删除）时返回false
+     */
+    public boolean remove(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        // 被删除的节点链入之前已经提高过level，所以这里的level不低于它的层数
+        Node<E>[] preds = newLevelArray();
+        Node<E>[] succs = newLevelArray();
+        if (!find(val, preds, succs)) {
+            return false;
+        }
+        Node<E> victim = succs[0];
+        boolean[] marked = {false};
+        // 从上到下标记除第0层以外的各层
+        for (int level = victim.topLevel; level >= 1; level--) {
+            Node<E> succ = victim.next[level].get(marked);
+            while (!marked[0]) {
+                victim.next[level].compareAndSet(succ, succ, false, true);
+                succ = victim.next[level].get(marked);
+            }
+        }
+        // 标记第0层，成功的线程才算删除了这个元素
+        Node<E> succ = victim.next[0].get(marked);
+        while (true) {
+            boolean markedByMe = victim.next[0].compareAndSet(succ, succ, false, true);
+            succ = victim.next[0].get(marked);
+            if (markedByMe) {
+                size.decrement();
+                // 借助find物理摘除
+                find(val, preds, succs);
+                return true;
+            } else if (marked[0]) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 是否包含某个元素，不修改任何节点（wait-free）
+     *
+     * @param val
+     * @return
+     */
+    public boolean contains(E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        boolean[] marked = {false};
+        Node<E> pred = head;
+        Node<E> curr = null;
+        for (int level = this.level.get(); level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (true) {
+                Node<E> succ = curr.next[level].get(marked);
+                while (marked[0]) {
+                    // 跳过已被删除的节点
+                    curr = succ;
+                    succ = curr.next[level].get(marked);
+                }
+                if (compare(curr, val) < 0) {
+                    pred = curr;
+                    curr = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        return compare(curr, val) == 0;
+    }
+
+    /**
+     * 最小的元素（wait-free）
+     *
+     * @return 集合为空时返回null
+     */
+    public E min() {
+        Node<E> curr = head.next[0].getReference();
+        while (curr != tail) {
+            if (!curr.next[0].isMarked()) {
+                return curr.val;
+            }
+            curr = curr.next[0].getReference();
+        }
+        return null;
+    }
+
+    /**
+     * 删除并返回最小的元素
+     *
+     * @return 集合为空时返回null
+     */
+    public E removeMin() {
+        while (true) {
+            E result = min();
+            if (result == null || remove(result)) {
+                return result;
+            }
+            // 被其他线程抢先删除，重试
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ size: " + size() + ", item: [");
+        Node<E> curr = head.next[0].getReference();
+        boolean first = true;
+        while (curr != tail) {
+            if (!curr.next[0].isMarked()) {
+                if (!first) {
+                    result.append(", ");
+                }
+                result.append(curr.val);
+                first = false;
+            }
+            curr = curr.next[0].getReference();
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
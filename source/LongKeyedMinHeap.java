@@ -0,0 +1,185 @@
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 以long为键的最小堆，每个键附带一个值
+ * 键和值分别存放在平行的long[]和Object[]中，位置始终一一对应：
+ * 比较只读long[]，不装箱也不调用compareTo，add/extractMin不分配对象（扩容除外）
+ * 适合按截止时间调度的定时任务：键是截止时间，值是任务
+ */
+public class LongKeyedMinHeap<V> {
+
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongKeyedMinHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongKeyedMinHeap(int initCapacity) {
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        keys = new long[Math.max(initCapacity, 1)];
+        values = new Object[keys.length];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param key
+     * @param value
+     */
+    public void add(long key, V value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length << 1);
+            values = Arrays.copyOf(values, keys.length);
+        }
+        // 从末尾的空位开始上浮，键和值一起移动
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            keys[index] = keys[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * 查看堆中最小的键
+     *
+     * @return
+     */
+    public long peekKey() {
+        if (size == 0) {
+            throw new IllegalStateException("heap is empty");
+        }
+        return keys[0];
+    }
+
+    /**
+     * 查看堆中最小的键对应的值
+     *
+     * @return
+     */
+    public V peekValue() {
+        if (size == 0) {
+            throw new IllegalStateException("heap is empty");
+        }
+        return (V) values[0];
+    }
+
+    /**
+     * 移除最小的键，并返回其对应的值
+     * 需要键时先调用peekKey
+     *
+     * @return
+     */
+    public V extractMin() {
+        if (size == 0) {
+            throw new IllegalStateException("heap is empty");
+        }
+        V result = (V) values[0];
+        int last = --size;
+        long key = keys[last];
+        Object value = values[last];
+        // 释放引用，避免内存泄漏
+        values[last] = null;
+        if (last > 0) {
+            siftDown(key, value);
+        }
+        return result;
+    }
+
+    /**
+     * 从堆顶的空位开始，把较小的子节点依次上移，直到找到key的位置
+     *
+     * @param key
+     * @param value
+     */
+    private void siftDown(long key, Object value) {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int size = this.size;
+        int index = 0;
+        int child;
+        while ((child = (index << 1) + 1) < size) {
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[index] = keys[child];
+            values[index] = values[child];
+            index = child;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * 按键从小到大的顺序移除所有键不大于deadline的元素，并交给consumer处理
+     *
+     * @param deadline 截止时间（包含）
+     * @param consumer 参数依次为值和键
+     * @return 移除的元素个数
+     */
+    public int drainUntil(long deadline, ObjLongConsumer<? super V> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        int count = 0;
+        while (size > 0 && keys[0] <= deadline) {
+            long key = keys[0];
+            consumer.accept(extractMin(), key);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 清除所有元素，保留容量
+     */
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ capacity: " + keys.length + ", size: " + size + ", item: [");
+        for (int i = 0; i < size; i++) {
+            result.append(keys[i] + "=" + values[i]);
+            if (i != size - 1) {
+                result.append(", ");
+            }
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
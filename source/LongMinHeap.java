@@ -0,0 +1,155 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * 最小堆（long特化版本）
+ * 直接使用long[]存储，add/extractMin不装箱、不分配对象（扩容除外），比较也不需要调用compareTo
+ * 适合存放定时器、事件调度的截止时间
+ * 和DaryMinHeap一样采用空位（hole）方式上浮/下沉，每层只写一次数组
+ */
+public class LongMinHeap {
+
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] table;
+    private int size;
+
+    public LongMinHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongMinHeap(int initCapacity) {
+        if (initCapacity < 0) {
+            throw new IllegalArgumentException("illegal capacity: " + initCapacity);
+        }
+        table = new long[Math.max(initCapacity, 1)];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param key
+     */
+    public void add(long key) {
+        if (size == table.length) {
+            table = Arrays.copyOf(table, table.length << 1);
+        }
+        // 从末尾的空位开始上浮
+        long[] table = this.table;
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (key >= table[parent]) {
+                break;
+            }
+            table[index] = table[parent];
+            index = parent;
+        }
+        table[index] = key;
+    }
+
+    /**
+     * 查看堆中的最小元素
+     *
+     * @return
+     */
+    public long peekKey() {
+        if (size == 0) {
+            throw new IllegalStateException("heap is empty");
+        }
+        return table[0];
+    }
+
+    /**
+     * 移除，并返回最小的元素
+     *
+     * @return
+     */
+    public long extractMin() {
+        if (size == 0) {
+            throw new IllegalStateException("heap is empty");
+        }
+        long result = table[0];
+        int last = --size;
+        if (last > 0) {
+            siftDown(table[last]);
+        }
+        return result;
+    }
+
+    /**
+     * 从堆顶的空位开始，把较小的子节点依次上移，直到找到key的位置
+     *
+     * @param key
+     */
+    private void siftDown(long key) {
+        long[] table = this.table;
+        int size = this.size;
+        int index = 0;
+        int child;
+        while ((child = (index << 1) + 1) < size) {
+            if (child + 1 < size && table[child + 1] < table[child]) {
+                child++;
+            }
+            if (key <= table[child]) {
+                break;
+            }
+            table[index] = table[child];
+            index = child;
+        }
+        table[index] = key;
+    }
+
+    /**
+     * 按从小到大的顺序移除所有不大于deadline的元素，并交给consumer处理
+     *
+     * @param deadline 截止时间（包含）
+     * @param consumer
+     * @return 移除的元素个数
+     */
+    public int drainUntil(long deadline, LongConsumer consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        int count = 0;
+        while (size > 0 && table[0] <= deadline) {
+            consumer.accept(extractMin());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 清除所有元素，保留容量
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("{ capacity: " + table.length + ", size: " + size + ", item: [");
+        for (int i = 0; i < size; i++) {
+            result.append(table[i]);
+            if (i != size - 1) {
+                result.append(", ");
+            }
+        }
+        result.append("] }");
+        return result.toString();
+    }
+
+}
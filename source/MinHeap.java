@@ -1,4 +1,6 @@
-**
+import java.util.Collection;
+
+/**
  * 最小堆
  * 利用动态数组ArrayList实现
  * 从数组第0个索引开始存储元素
@@ -22,14 +24,27 @@ public class MinHeap<E extends Comparable<E>> {
 
     /**
      * 利用构造函数实现heapify功能
-     * heapify：根据数组生成最小堆
+     * heapify：根据数组生成最小堆，时间复杂度O(n)
      *
      * @param arr
      */
     public MinHeap(E[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
         data = new ArrayList(arr);
-        for (int i = parent(data.size() - 1); i >= 0; i--) {
-            siftDown(i);
+        heapify();
+    }
+
+    /**
+     * 复制另一个堆，数组中的顺序已经满足堆的性质，直接按顺序复制即可
+     *
+     * @param other
+     */
+    public MinHeap(MinHeap<E> other) {
+        data = new ArrayList(other.size());
+        for (int i = 0; i < other.size(); i++) {
+            data.add(other.data.get(i));
         }
     }
 
@@ -37,6 +52,19 @@ public class MinHeap<E extends Comparable<E>> {
         return data.size();
     }
 
+    /**
+     * 从最后一个非叶子节点（下标 size / 2 - 1）开始，倒序对每个节点做siftDown
+     * 元素个数为0或1时没有非叶子节点，什么都不做
+     *
+     * 高度为h的节点最多下沉h层，而高度为h的节点不超过 n / 2^(h+1) 个，
+     * 总的下沉次数不超过 n * Σ(h / 2^(h+1)) = n，所以是O(n)而不是O(n log n)
+     */
+    private void heapify() {
+        for (int i = size() / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
     public boolean isEmpty() {
         return data.isEmpty();
     }
@@ -84,15 +112,66 @@ public class MinHeap<E extends Comparable<E>> {
         siftUp(size() - 1);
     }
 
+    /**
+     * 批量添加元素
+     * 逐个siftUp的代价是O(k log(n + k))，先追加再整体heapify的代价是O(n + k)，
+     * 按最坏情况估算，选择代价较小的一种：批量较大（比如从空堆加载）时总是线性的
+     *
+     * @param c
+     */
+    public void addAll(Collection<? extends E> c) {
+        if (c == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        int n = size();
+        int k = c.size();
+        if (k == 0) {
+            return;
+        }
+        data.ensureCapacity(n + k);
+        int log = 32 - Integer.numberOfLeadingZeros(n + k);
+        if ((long) k * log > 2L * (n + k)) {
+            for (E e : c) {
+                data.add(e);
+            }
+            heapify();
+        } else {
+            for (E e : c) {
+                add(e);
+            }
+        }
+    }
+
+    /**
+     * 获取数组中第index个元素
+     *
+     * @param index
+     * @return
+     */
+    protected E get(int index) {
+        return data.get(index);
+    }
+
+    /**
+     * 交换两个位置的元素，上浮、下沉和删除时元素都通过这个方法移动
+     * 子类可以覆盖，在元素移动时同步额外的状态，比如IndexedMinHeap中句柄记录的下标
+     *
+     * @param i
+     * @param j
+     */
+    protected void swap(int i, int j) {
+        data.swap(i, j);
+    }
+
     /**
      * 把节点上浮（siftUp）到合适的地方
      *
      * @param index
      */
-    private void siftUp(int index) {
+    protected void siftUp(int index) {
         while (index > 0 && data.get(index).compareTo(data.get(parent(index))) < 0) {
             // 当前节点的元素小于父节点的元素，需要上移（交换）
-            data.swap(index, parent(index));
+            swap(index, parent(index));
             // 更新当前元素的index
             index = parent(index);
         }
@@ -105,6 +184,9 @@ public class MinHeap<E extends Comparable<E>> {
      * @return
      */
     public E min() {
+        if (isEmpty()) {
+            throw new IllegalStateException("heap is empty");
+        }
         return data.get(0);
     }
 
@@ -114,13 +196,46 @@ public class MinHeap<E extends Comparable<E>> {
      * @return
      */
     public E extractMin() {
-        // 获取最小的元素用于返回
+        if (isEmpty()) {
+            throw new IllegalStateException("heap is empty");
+        }
+        return removeAt(0);
+    }
+
+    /**
+     * 删除指定位置的元素：和最后一个元素交换后删除最后一个，
+     * 换过来的元素可能比原位置的父节点小，也可能比子节点大，所以下沉、上浮各尝试一次
+     * 删除的就是最后一个元素时（包括只剩一个元素）不需要调整
+     *
+     * @param index
+     * @return 被删除的元素
+     */
+    protected E removeAt(int index) {
+        int last = size() - 1;
+        if (index != last) {
+            swap(index, last);
+        }
+        E result = data.remove();
+        if (index != last) {
+            siftDown(index);
+            siftUp(index);
+        }
+        return result;
+    }
+
+    /**
+     * 用新元素替换最小的元素，并返回被替换的最小元素
+     * 相当于extractMin之后再add，但只需要一次下沉
+     *
+     * @param e
+     * @return
+     */
+    public E replaceMin(E e) {
+        if (isEmpty()) {
+            throw new IllegalStateException("heap is empty");
+        }
         E result = min();
-        // 把最小的元素和最后一个元素交换位置
-        data.swap(0, size() - 1);
-        // 删除最后一个元素（最小值）
-        data.remove();
-        // 堆顶元素下沉到合适的位置
+        data.replace(0, e);
         siftDown(0);
         return result;
     }
@@ -130,7 +245,7 @@ public class MinHeap<E extends Comparable<E>> {
      *
      * @param index
      */
-    private void siftDown(int index) {
+    protected void siftDown(int index) {
         while (left(index) < size()) {
             int k = left(index);
             if (right(index) < size() && data.get(right(index)).compareTo(data.get(left(index))) < 0) {
@@ -142,9 +257,53 @@ public class MinHeap<E extends Comparable<E>> {
                 break;
             }
             // 当前节点的值大于k节点的值，进行交换
-            data.swap(index, k);
+            swap(index, k);
             index = k;
         }
     }
 
+    /**
+     * 堆排序，原地把数组按从小到大排序，额外空间O(1)
+     * 先把数组heapify成最大堆，再依次把堆顶（当前最大值）交换到末尾
+     *
+     * @param arr
+     */
+    public static <E extends Comparable<E>> void heapSort(E[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        for (int i = arr.length / 2 - 1; i >= 0; i--) {
+            siftDownMax(arr, i, arr.length);
+        }
+        for (int end = arr.length - 1; end > 0; end--) {
+            E max = arr[0];
+            arr[0] = arr[end];
+            arr[end] = max;
+            siftDownMax(arr, 0, end);
+        }
+    }
+
+    /**
+     * 在arr[0, size)构成的最大堆中，把index处的元素下沉到合适的地方
+     *
+     * @param arr
+     * @param index
+     * @param size
+     */
+    private static <E extends Comparable<E>> void siftDownMax(E[] arr, int index, int size) {
+        E e = arr[index];
+        int child;
+        while ((child = index * 2 + 1) < size) {
+            if (child + 1 < size && arr[child + 1].compareTo(arr[child]) > 0) {
+                child++;
+            }
+            if (e.compareTo(arr[child]) >= 0) {
+                break;
+            }
+            arr[index] = arr[child];
+            index = child;
+        }
+        arr[index] = e;
+    }
+
 }
@@ -0,0 +1,607 @@
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 多生产者多消费者（MPMC）的有界阻塞队列，实现了BlockingQueue，可以直接作为ThreadPoolExecutor的任务队列
+ *
+ * 基于Dmitry Vyukov的有界MPMC队列：和ArrayCycleQueue一样是长度为2的幂的环形数组，另外每个槽位有一个序号：
+ * 1. 初始时第i个槽位的序号是i
+ * 2. 入队位置为pos的生产者，等到槽位序号等于pos（上一轮已经被取走）后，CAS推进tail占住该位置，
+ *    写入元素，再把序号设为pos + 1，表示可以读
+ * 3. 出队位置为pos的消费者，等到槽位序号等于pos + 1后，CAS推进head，取出元素，
+ *    再把序号设为pos + capacity，表示下一轮的生产者可以写
+ * 每次入队/出队只有一次CAS，不加锁，也不像LinkedBlockingQueue那样为每个元素分配节点
+ *
+ * 队满/队空时put/take以及带超时的offer/poll如何等待，由WaitStrategy决定：
+ * 忙等（BUSY_SPIN）、让出CPU（YIELD）、短暂挂起（PARK）、条件变量阻塞（blocking()）
+ *
+ * remove(Object)从head到tail查找元素，用CAS把槽位中的元素换成TOMBSTONE（墓碑），出队时跳过墓碑，
+ * 和消费者之间只有一方能拿到这个元素；被删除的元素在head越过之前仍然占用位置，计入size
+ * 迭代器是弱一致的快照，支持remove，ThreadPoolExecutor的remove(Runnable)和purge()依赖这两个方法
+ */
+public class MpmcBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * 2的幂中最大的数组长度
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * 被remove(Object)删除的元素留在槽位中的标记
+     */
+    private static final Object TOMBSTONE = new Object();
+
+    /**
+     * 等待策略：put/take等方法在队满/队空时如何等待
+     */
+    public interface WaitStrategy {
+
+        /**
+         * 等待一次，返回后调用方会重试入队/出队
+         * 不区分队满和队空的策略只需要实现这个方法
+         *
+         * @param ready 粗略判断是否可以重试（队列不满/不空）
+         * @param attempt 本次调用已经等待的次数，从0开始，达到Integer.MAX_VALUE后不再增加
+         * @param nanos 剩余的等待时间（大于0），Long.MAX_VALUE表示不限时；剩余时间由调用方根据截止时间计算
+         * @throws InterruptedException
+         */
+        void await(BooleanSupplier ready, int attempt, long nanos) throws InterruptedException;
+
+        /**
+         * 生产者在队满时等待，参数同await
+         */
+        default void awaitNotFull(BooleanSupplier ready, int attempt, long nanos) throws InterruptedException {
+            await(ready, attempt, nanos);
+        }
+
+        /**
+         * 消费者在队空时等待，参数同await
+         */
+        default void awaitNotEmpty(BooleanSupplier ready, int attempt, long nanos) throws InterruptedException {
+            await(ready, attempt, nanos);
+        }
+
+        /**
+         * 每次入队成功后调用，用于唤醒等待的消费者
+         */
+        default void signalNotEmpty() {
+        }
+
+        /**
+         * 每次出队成功后调用，用于唤醒等待的生产者
+         */
+        default void signalNotFull() {
+        }
+
+        /**
+         * 忙等，延迟最低，但是一直占用CPU
+         */
+        WaitStrategy BUSY_SPIN = (ready, attempt, nanos) -> checkInterrupted();
+
+        /**
+         * 每次等待都让出CPU
+         */
+        WaitStrategy YIELD = (ready, attempt, nanos) -> {
+            checkInterrupted();
+            Thread.yield();
+        };
+
+        /**
+         * 先自旋，再让出CPU，之后每次挂起一小段时间（最多约1毫秒）
+         */
+        WaitStrategy PARK = (ready, attempt, nanos) -> {
+            checkInterrupted();
+            if (attempt >= 128 || attempt < 0) {
+                // 移位数限制在[0, 20]，负数的attempt按最长挂起处理，不会因为移位数回绕而挂起过久或者退回自旋
+                int exp = attempt < 0 ? 20 : Math.min(attempt - 128, 20);
+                LockSupport.parkNanos(Math.min(1L << exp, nanos));
+            } else if (attempt >= 64) {
+                Thread.yield();
+            }
+        };
+
+        /**
+         * 用ReentrantLock和Condition阻塞，等待时不占用CPU，但是入队/出队后需要检查是否有线程在等待
+         * 有状态，每个队列应该使用各自的实例
+         *
+         * @return
+         */
+        static WaitStrategy blocking() {
+            return new BlockingWaitStrategy();
+        }
+    }
+
+    /**
+     * 不阻塞的等待策略不会被中断唤醒，每次等待前主动检查中断状态
+     *
+     * @throws InterruptedException
+     */
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * 阻塞的等待策略，生产者和消费者分别在各自的条件上等待
+     * 入队只唤醒等待不空的消费者，出队只唤醒等待不满的生产者，每次只唤醒一个，避免惊群
+     */
+    private static final class BlockingWaitStrategy implements WaitStrategy {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Waiters notFull = new Waiters(lock.newCondition());
+        private final Waiters notEmpty = new Waiters(lock.newCondition());
+
+        /**
+         * 一个条件上的等待者
+         * 等待方先增加count，再检查ready，最后await；唤醒方先通过CAS推进head/tail，再检查count。
+         * 两边都是volatile读写，所以不会出现等待方看到ready为false、唤醒方又看到count为0的情况
+         */
+        private final class Waiters {
+
+            private final Condition condition;
+            private volatile int count;
+
+            Waiters(Condition condition) {
+                this.condition = condition;
+            }
+
+            void await(BooleanSupplier ready, long nanos) throws InterruptedException {
+                lock.lockInterruptibly();
+                try {
+                    count++;
+                    if (ready.getAsBoolean()) {
+                        return;
+                    }
+                    if (nanos == Long.MAX_VALUE) {
+                        condition.await();
+                    } else {
+                        condition.awaitNanos(nanos);
+                    }
+                } finally {
+                    count--;
+                    lock.unlock();
+                }
+            }
+
+            void signal() {
+                if (count > 0) {
+                    lock.lock();
+                    try {
+                        // 被唤醒的线程如果没有抢到元素/位置会再次等待，由之后的入队/出队继续唤醒
+                        condition.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 不知道等待哪一侧时，没有对应的唤醒，只能限时挂起
+         */
+        @Override
+        public void await(BooleanSupplier ready, int attempt, long nanos) throws InterruptedException {
+            checkInterrupted();
+            if (!ready.getAsBoolean()) {
+                LockSupport.parkNanos(Math.min(TimeUnit.MILLISECONDS.toNanos(1), nanos));
+            }
+        }
+
+        @Override
+        public void awaitNotFull(BooleanSupplier ready, int attempt, long nanos) throws InterruptedException {
+            notFull.await(ready, nanos);
+        }
+
+        @Override
+        public void awaitNotEmpty(BooleanSupplier ready, int attempt, long nanos) throws InterruptedException {
+            notEmpty.await(ready, nanos);
+        }
+
+        @Override
+        public void signalNotEmpty() {
+            notEmpty.signal();
+        }
+
+        @Override
+        public void signalNotFull() {
+            notFull.signal();
+        }
+    }
+
+    // 槽位中的元素，出队和remove(Object)用原子操作争抢同一个元素
+    private final AtomicReferenceArray<Object> buffer;
+    // 每个槽位的序号
+    private final AtomicLongArray sequences;
+    private final int mask;
+    // 下一个入队位置
+    private final PaddedCounter tail;
+    // 下一个出队位置
+    private final PaddedCounter head;
+    private final WaitStrategy waitStrategy;
+    // 等待时用于粗略判断队列是否不满/不空
+    private final BooleanSupplier notFull;
+    private final BooleanSupplier notEmpty;
+
+    /**
+     * 使用PARK等待策略
+     *
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public MpmcBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * @param capacity 容量，向上取整为2的幂，至少为2
+     * @param waitStrategy 等待策略
+     */
+    public MpmcBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("illegal capacity: " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        // 容量为1时，“可写”（pos）和“下一轮可写”（pos + 1）的序号相同，无法区分，所以至少为2
+        int length = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new AtomicReferenceArray<>(length);
+        sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+        mask = length - 1;
+        tail = new PaddedCounter();
+        head = new PaddedCounter();
+        this.waitStrategy = waitStrategy;
+        this.notFull = () -> tail.get() - head.get() < buffer.length();
+        this.notEmpty = () -> tail.get() != head.get();
+    }
+
+    public int capacity() {
+        return buffer.length();
+    }
+
+    /**
+     * 元素个数，存在并发修改时只是近似值
+     *
+     * @return
+     */
+    @Override
+    public int size() {
+        while (true) {
+            long h = head.get();
+            long t = tail.get();
+            // 两次读取之间head没有变化，t - h才有意义
+            if (h == head.get()) {
+                return (int) Math.max(0, Math.min(t - h, buffer.length()));
+            }
+        }
+    }
+
+    /**
+     * 和peek一样跳过队首被删除的元素，只剩被删除的元素时队列为空，
+     * 否则ThreadPoolExecutor在shutdown之后可能一直等待一个不存在的任务
+     *
+     * @return
+     */
+    @Override
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return buffer.length() - size();
+    }
+
+    private static void checkNotNull(Object obj) {
+        if (obj == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    /**
+     * 入队，不等待
+     *
+     * @param e
+     * @return 队列已满时返回false
+     */
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer.lazySet(index, e);
+                    // 元素写入之后才发布序号
+                    sequences.lazySet(index, pos + 1);
+                    waitStrategy.signalNotEmpty();
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // 槽位还没有被上一轮的消费者取走，队列已满；队首是被删除的元素时先帮忙出队再重试
+                if (!discardRemoved()) {
+                    return false;
+                }
+                pos = tail.get();
+            } else {
+                // 被其他生产者抢先，重新读取tail
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 出队，不等待
+     *
+     * @return 队列为空时返回null
+     */
+    @Override
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    // 和remove(Object)的CAS互斥：要么取到元素，要么取到墓碑
+                    Object result = buffer.getAndSet(index, null);
+                    // 槽位清空之后才交给下一轮的生产者
+                    sequences.lazySet(index, pos + buffer.length());
+                    waitStrategy.signalNotFull();
+                    if (result != TOMBSTONE) {
+                        return (E) result;
+                    }
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // 槽位还没有被写入，队列为空
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * 查看队首元素，不出队
+     *
+     * @return 队列为空时返回null
+     */
+    @Override
+    public E peek() {
+        while (true) {
+            long pos = head.get();
+            int index = (int) pos & mask;
+            if (sequences.get(index) != pos + 1) {
+                if (pos == head.get()) {
+                    return null;
+                }
+                continue;
+            }
+            Object e = buffer.get(index);
+            if (e == TOMBSTONE) {
+                discardRemoved();
+                continue;
+            }
+            // 读取期间没有被取走，读到的才是队首元素
+            if (e != null && pos == head.get()) {
+                return (E) e;
+            }
+        }
+    }
+
+    /**
+     * 队首是被删除的元素时，代替消费者推进head并释放槽位
+     *
+     * @return 是否释放了一个槽位
+     */
+    private boolean discardRemoved() {
+        long pos = head.get();
+        int index = (int) pos & mask;
+        if (sequences.get(index) == pos + 1 && buffer.get(index) == TOMBSTONE && head.compareAndSet(pos, pos + 1)) {
+            // 占住槽位之后墓碑不会再被修改
+            buffer.lazySet(index, null);
+            sequences.lazySet(index, pos + buffer.length());
+            waitStrategy.signalNotFull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 删除一个和o相等的元素
+     * 从head到tail逐个查找，把找到的元素CAS成墓碑，CAS失败说明已经被取走或删除，继续向后查找
+     *
+     * @param o
+     * @return 是否删除了元素
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            if (removeAt(pos, o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 删除位置pos上和o相等的元素
+     *
+     * @param pos
+     * @param o
+     * @return
+     */
+    private boolean removeAt(long pos, Object o) {
+        int index = (int) pos & mask;
+        // 序号说明元素已经发布且还没有被取走
+        if (sequences.get(index) != pos + 1) {
+            return false;
+        }
+        Object e = buffer.get(index);
+        return e != null && e != TOMBSTONE && o.equals(e) && buffer.compareAndSet(index, e, TOMBSTONE);
+    }
+
+    /**
+     * 等待次数加一，到Integer.MAX_VALUE为止，长时间空闲的线程不会溢出成负数
+     *
+     * @param attempt
+     * @return
+     */
+    private static int nextAttempt(int attempt) {
+        return attempt == Integer.MAX_VALUE ? attempt : attempt + 1;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        int attempt = 0;
+        while (!offer(e)) {
+            waitStrategy.awaitNotFull(notFull, attempt, Long.MAX_VALUE);
+            attempt = nextAttempt(attempt);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(e);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        while (!offer(e)) {
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0) {
+                return false;
+            }
+            waitStrategy.awaitNotFull(notFull, attempt, nanos);
+            attempt = nextAttempt(attempt);
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        int attempt = 0;
+        E result;
+        while ((result = poll()) == null) {
+            waitStrategy.awaitNotEmpty(notEmpty, attempt, Long.MAX_VALUE);
+            attempt = nextAttempt(attempt);
+        }
+        return result;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        E result;
+        while ((result = poll()) == null) {
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0) {
+                return null;
+            }
+            waitStrategy.awaitNotEmpty(notEmpty, attempt, nanos);
+            attempt = nextAttempt(attempt);
+        }
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException("illegal argument: drain to self");
+        }
+        int count = 0;
+        E e;
+        while (count < maxElements && (e = poll()) != null) {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 弱一致的快照迭代器：按顺序复制当前已经发布的元素，跳过被删除的元素
+     * remove()删除的是快照中的元素，它已经出队时什么也不做
+     *
+     * @return
+     */
+    @Override
+    public Iterator<E> iterator() {
+        java.util.ArrayList<E> snapshot = new java.util.ArrayList<>();
+        java.util.ArrayList<Long> positions = new java.util.ArrayList<>();
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            int index = (int) pos & mask;
+            long sequence = sequences.get(index);
+            Object e = buffer.get(index);
+            // 只复制这一轮已经写入、还没有被取走的元素，读取元素前后序号都没有变化
+            if (sequence != pos + 1 || e == null || sequences.get(index) != sequence) {
+                break;
+            }
+            if (e != TOMBSTONE) {
+                snapshot.add((E) e);
+                positions.add(pos);
+            }
+        }
+        return new Iterator<E>() {
+
+            private int cursor;
+            // 上一次next返回的元素在快照中的下标，-1表示不能remove
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.size();
+            }
+
+            @Override
+            public E next() {
+                if (cursor >= snapshot.size()) {
+                    throw new NoSuchElementException();
+                }
+                last = cursor++;
+                return snapshot.get(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                removeAt(positions.get(last), snapshot.get(last));
+                last = -1;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "{ capacity: " + capacity() + ", size: " + size() + ", item: " + super.toString() + " }";
+    }
+
+}
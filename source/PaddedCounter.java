@@ -0,0 +1,56 @@
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 前后都有缓存行填充的long计数器，用于SpscRingBuffer和MpmcBlockingQueue的head/tail
+ * 被不同线程频繁修改的计数器如果落在同一个缓存行，一个线程的写会让其他线程的缓存行失效（伪共享）
+ *
+ * HotSpot总是先排父类的字段，字段重排只发生在同一个类内部，
+ * 所以用 PaddedCounterLhsPad -> PaddedCounterValue -> PaddedCounter 的继承链，
+ * 保证value前后各有56字节，不会和对象头或者相邻分配的对象共享缓存行
+ * 不继承AtomicLong（它实现了Serializable），用AtomicLongFieldUpdater做原子操作
+ */
+final class PaddedCounter extends PaddedCounterValue {
+
+    long p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * 计数器前面的填充
+ */
+abstract class PaddedCounterLhsPad {
+
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * 计数器本身
+ */
+abstract class PaddedCounterValue extends PaddedCounterLhsPad {
+
+    private static final AtomicLongFieldUpdater<PaddedCounterValue> VALUE =
+            AtomicLongFieldUpdater.newUpdater(PaddedCounterValue.class, "value");
+
+    private volatile long value;
+    /**
+     * 拥有者线程的本地缓存，只被拥有者线程读写，和value放在同一个缓存行
+     * SpscRingBuffer用它缓存另一端的计数器，减少对另一个线程所写缓存行的访问
+     */
+    long cache;
+
+    final long get() {
+        return value;
+    }
+
+    /**
+     * release语义的写，之前的写对读到新值的线程可见
+     *
+     * @param newValue
+     */
+    final void lazySet(long newValue) {
+        VALUE.lazySet(this, newValue);
+    }
+
+    final boolean compareAndSet(long expect, long update) {
+        return VALUE.compareAndSet(this, expect, update);
+    }
+}
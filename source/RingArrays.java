@@ -0,0 +1,46 @@
+/**
+ * 长度为2的幂的环形数组的公共操作，ArrayCycleQueue和ArrayCycleDeque共用
+ * 元素从head开始连续存放size个，下标回绕用 & (length - 1)
+ */
+final class RingArrays {
+
+    /**
+     * 2的幂中最大的数组长度
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private RingArrays() {
+    }
+
+    /**
+     * 不小于n的最小的2的幂
+     *
+     * @param n
+     * @return
+     */
+    static int powerOfTwo(int n) {
+        if (n > MAX_CAPACITY) {
+            throw new OutOfMemoryError("required capacity " + n + " exceeds max capacity " + MAX_CAPACITY);
+        }
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * 把环形数组中的元素按顺序复制到新数组的开头，最多两次arraycopy：
+     * 先复制head到数组末尾的部分，再复制回绕到数组开头的部分
+     *
+     * @param table
+     * @param head 第一个元素的下标
+     * @param size 元素个数
+     * @param newCapacity 新数组的长度，2的幂，不小于size
+     * @return 新数组，第一个元素的下标是0
+     */
+    static <E> E[] resize(E[] table, int head, int size, int newCapacity) {
+        E[] newArray = (E[]) new Object[newCapacity];
+        int firstPart = Math.min(size, table.length - head);
+        System.arraycopy(table, head, newArray, 0, firstPart);
+        System.arraycopy(table, 0, newArray, firstPart, size - firstPart);
+        return newArray;
+    }
+
+}
@@ -0,0 +1,211 @@
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 单生产者单消费者（SPSC）的无锁有界环形队列
+ * 接口和ArrayCycleQueue相同（add/remove/peek），只允许一个线程add/fill，另一个线程remove/peek/drain
+ *
+ * 1. 和ArrayCycleQueue一样，容量是2的幂，用 & mask 回绕；tail和head是只增不减的long，不会溢出
+ * 2. 生产者先写数组再用lazySet（release语义）发布tail，消费者读tail（acquire语义）之后一定能看到元素；
+ *    消费者清空槽位后同样用lazySet发布head，生产者看到head之后才会复用这个槽位。全程没有锁和CAS
+ * 3. tail和head分别放在带填充的PaddedCounter里，避免两个线程各自写的变量落在同一个缓存行（伪共享）
+ * 4. 生产者缓存上一次读到的head，只有缓存值显示队满时才重新读head；消费者同理缓存tail，
+ *    减少对另一个线程所写缓存行的访问
+ */
+public class SpscRingBuffer<E> {
+
+    /**
+     * 默认容量
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * 2的幂中最大的数组长度
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final E[] buffer;
+    private final int mask;
+    // 下一个要写入的位置，只由生产者修改；cache是生产者缓存的head
+    private final PaddedCounter tail;
+    // 下一个要读取的位置，只由消费者修改；cache是消费者缓存的tail
+    private final PaddedCounter head;
+
+    public SpscRingBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("illegal capacity: " + capacity);
+        }
+        int length = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        buffer = (E[]) new Object[length];
+        mask = length - 1;
+        tail = new PaddedCounter();
+        head = new PaddedCounter();
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * 元素个数，另一端同时在操作时只是近似值
+     *
+     * @return
+     */
+    public int size() {
+        // 先读head再读tail，保证结果不为负
+        long h = head.get();
+        long t = tail.get();
+        return (int) Math.min(t - h, buffer.length);
+    }
+
+    public boolean empty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * 入队，只能由生产者线程调用
+     *
+     * @param e
+     * @return 队列已满时返回false
+     */
+    public boolean add(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        long t = tail.get();
+        if (t - tail.cache >= buffer.length) {
+            // 按缓存的head看队列已满，重新读取head
+            tail.cache = head.get();
+            if (t - tail.cache >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) t & mask] = e;
+        // 元素写入之后才发布tail
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * 批量入队，只能由生产者线程调用
+     * 一次性确认可用空间，全部写入后只发布一次tail
+     *
+     * @param supplier 不能返回null
+     * @param max 最多入队的元素个数
+     * @return 实际入队的元素个数
+     */
+    public int fill(Supplier<? extends E> supplier, int max) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        long t = tail.get();
+        long free = buffer.length - (t - tail.cache);
+        if (free < max) {
+            tail.cache = head.get();
+            free = buffer.length - (t - tail.cache);
+        }
+        int n = (int) Math.min(free, Math.max(max, 0));
+        for (int i = 0; i < n; i++) {
+            E e;
+            try {
+                e = supplier.get();
+            } catch (RuntimeException | Error ex) {
+                // 已经写入的元素仍然要发布
+                tail.lazySet(t + i);
+                throw ex;
+            }
+            if (e == null) {
+                tail.lazySet(t + i);
+                throw new IllegalArgumentException("illegal argument: null ");
+            }
+            buffer[(int) (t + i) & mask] = e;
+        }
+        tail.lazySet(t + n);
+        return n;
+    }
+
+    /**
+     * 出队，只能由消费者线程调用
+     *
+     * @return 队列为空时返回null
+     */
+    public E remove() {
+        long h = head.get();
+        if (h >= head.cache) {
+            // 按缓存的tail看队列为空，重新读取tail
+            head.cache = tail.get();
+            if (h >= head.cache) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        E result = buffer[index];
+        buffer[index] = null;
+        // 槽位清空之后才发布head，生产者才可以复用
+        head.lazySet(h + 1);
+        return result;
+    }
+
+    /**
+     * 查看队首元素，只能由消费者线程调用
+     *
+     * @return 队列为空时返回null
+     */
+    public E peek() {
+        long h = head.get();
+        if (h >= head.cache) {
+            head.cache = tail.get();
+            if (h >= head.cache) {
+                return null;
+            }
+        }
+        return buffer[(int) h & mask];
+    }
+
+    /**
+     * 批量出队，只能由消费者线程调用
+     * 一次性确认可读的元素，全部取出后只发布一次head
+     *
+     * @param consumer
+     * @param max 最多出队的元素个数
+     * @return 实际出队的元素个数
+     */
+    public int drain(Consumer<? super E> consumer, int max) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        long h = head.get();
+        long available = head.cache - h;
+        if (available < max) {
+            head.cache = tail.get();
+            available = head.cache - h;
+        }
+        int n = (int) Math.min(available, Math.max(max, 0));
+        for (int i = 0; i < n; i++) {
+            int index = (int) (h + i) & mask;
+            E e = buffer[index];
+            buffer[index] = null;
+            try {
+                consumer.accept(e);
+            } catch (RuntimeException | Error ex) {
+                // 已经取出的元素不再留在队列中
+                head.lazySet(h + i + 1);
+                throw ex;
+            }
+        }
+        head.lazySet(h + n);
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return "{ capacity: " + capacity() + ", size: " + size() + " }";
+    }
+
+}
@@ -0,0 +1,118 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * 从任意长度的数据流中找出最大的k个元素
+ * 内部是一个最多k个元素的最小堆，堆顶就是当前第k大的元素（门槛）：
+ * 1. 堆未满时直接加入
+ * 2. 堆满后，只有比堆顶大的元素才用replaceMin替换堆顶，一次下沉即可
+ * 内存始终是O(k)，每个元素最多O(log k)
+ */
+public class TopK<E extends Comparable<E>> {
+
+    private final int k;
+    private final MinHeap<E> heap;
+
+    public TopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("illegal k, must be positive but is " + k);
+        }
+        this.k = k;
+        this.heap = new MinHeap<>(k);
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * 加入一个元素
+     *
+     * @param e
+     * @return 该元素当前是否在最大的k个元素之中
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new IllegalArgumentException("illegal argument: null ");
+        }
+        if (heap.size() < k) {
+            heap.add(e);
+            return true;
+        }
+        if (e.compareTo(heap.min()) <= 0) {
+            return false;
+        }
+        heap.replaceMin(e);
+        return true;
+    }
+
+    /**
+     * 合并另一个TopK的结果
+     *
+     * @param other
+     * @return
+     */
+    public TopK<E> merge(TopK<E> other) {
+        for (E e : other.toList()) {
+            offer(e);
+        }
+        return this;
+    }
+
+    /**
+     * 当前第k大的元素，即进入结果的门槛
+     *
+     * @return 还没有元素时返回null
+     */
+    public E threshold() {
+        return heap.isEmpty() ? null : heap.min();
+    }
+
+    /**
+     * 当前最大的k个元素，从大到小排列，不修改内部状态
+     *
+     * @return
+     */
+    public List<E> toList() {
+        MinHeap<E> copy = new MinHeap<>(heap);
+        java.util.ArrayList<E> result = new java.util.ArrayList<>(heap.size());
+        while (!copy.isEmpty()) {
+            result.add(copy.extractMin());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * 用于java.util.stream的收集器，结果从大到小排列
+     * 并行流中每个分段各自保留k个元素，合并时再取最大的k个
+     *
+     * @param k
+     * @return
+     */
+    public static <E extends Comparable<E>> Collector<E, ?, List<E>> collector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("illegal k, must be positive but is " + k);
+        }
+        return Collector.of(
+                () -> new TopK<E>(k),
+                TopK::offer,
+                TopK::merge,
+                TopK::toList);
+    }
+
+    @Override
+    public String toString() {
+        return "{ k: " + k + ", size: " + size() + ", item: " + toList() + " }";
+    }
+
+}
@@ -27,7 +27,13 @@ public class EfficientSum {
     static {
         // 核心线程数 CPU数量 + 1
         int corePoolSize = Runtime.getRuntime().availableProcessors() + 1;
-        executor = new ThreadPoolExecutor(corePoolSize, corePoolSize, 3, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        // 任务队列使用有界的MpmcBlockingQueue，不像LinkedBlockingQueue那样为每个任务分配节点
+        // 空闲的工作线程使用阻塞的等待策略，不占用CPU
+        // 队列有界且核心线程数等于最大线程数，积压超过1024个任务时会被拒绝；
+        // 拒绝时由提交任务的线程自己执行（CallerRunsPolicy），任务不会丢失，latch也一定会倒数到0，同时减缓提交速度
+        executor = new ThreadPoolExecutor(corePoolSize, corePoolSize, 3, TimeUnit.SECONDS,
+                new MpmcBlockingQueue<Runnable>(1024, MpmcBlockingQueue.WaitStrategy.blocking()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
     public static void main(String[] args) throws InterruptedException {